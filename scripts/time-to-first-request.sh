@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures time to first request: from launching the JVM until GET /api/v1/books?author=... first answers 200.
+#
+#   mvn -Pprod package -DskipTests
+#   scripts/time-to-first-request.sh [runs]
+#
+# Runs the extracted jar in target/application against an in-memory H2 database in MySQL mode, so no
+# MySQL is needed. The default configuration (schema.sql and data.sql, everything eager) is compared
+# with the prod profile, then with AOT, then with AOT and a CDS archive. The CDS archive used here is
+# trained with H2 on the class path, since an archive only applies to the class path it was built for.
+set -euo pipefail
+
+runs=${1:-5}
+port=${PORT:-18080}
+app=target/application/book-0.0.1.jar
+h2=${H2_JAR:-$(ls ~/.m2/repository/com/h2database/h2/*/h2-*.jar | tail -1)}
+jsa=target/application/time-to-first-request.jsa
+url="http://localhost:$port/api/v1/books?author=George%20Orwell"
+
+[[ -f $app ]] || { echo "$app not found, run: mvn -Pprod package" >&2; exit 1; }
+
+h2_args=(--server.port="$port"
+  --spring.datasource.url="jdbc:h2:mem:bookdb;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=false"
+  --spring.datasource.username=sa --spring.datasource.password= --spring.datasource.driver-class-name=org.h2.Driver)
+prod_args=(--spring.profiles.active=prod)
+
+launch() {
+  java -cp "$app:$h2" "$@" com.th.ascend.book.BookApplication "${args[@]}" >/dev/null 2>&1 &
+}
+
+measure() {
+  local label=$1; shift
+  local times=()
+  for ((i = 0; i < runs; i++)); do
+    local start=$(date +%s%N)
+    launch "$@"
+    local pid=$!
+    until curl -sf -o /dev/null "$url"; do
+      kill -0 "$pid" 2>/dev/null || { echo "$label: application exited" >&2; exit 1; }
+      sleep 0.01
+    done
+    times+=($(( ($(date +%s%N) - start) / 1000000 )))
+    kill "$pid"; wait "$pid" || true
+  done
+  local sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-20s median %6d ms   min %6d ms   max %6d ms\n' "$label" \
+    "${sorted[$(( runs / 2 ))]}" "${sorted[0]}" "${sorted[$(( runs - 1 ))]}"
+}
+
+args=("${h2_args[@]}")
+measure "default"
+
+args=("${h2_args[@]}" "${prod_args[@]}")
+measure "prod"
+measure "prod + AOT" -Dspring.aot.enabled=true
+
+rm -f "$jsa"
+args=("${h2_args[@]}" "${prod_args[@]}" --spring.main.lazy-initialization=false)
+java -cp "$app:$h2" -XX:ArchiveClassesAtExit="$jsa" -Xlog:cds=off -Xlog:cds+dynamic=off -Dspring.aot.enabled=true \
+  -Dspring.context.exit=onRefresh com.th.ascend.book.BookApplication "${args[@]}" >/dev/null 2>&1
+args=("${h2_args[@]}" "${prod_args[@]}")
+measure "prod + AOT + CDS" -Dspring.aot.enabled=true -XX:SharedArchiveFile="$jsa"
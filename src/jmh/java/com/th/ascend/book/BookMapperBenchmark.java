@@ -0,0 +1,72 @@
+package com.th.ascend.book;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions, alone and behind validation as on {@code POST /api/v1/books}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookMapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapperImpl();
+
+    private final YearValidator yearValidator = new YearValidator();
+
+    // Alternated so the per-thread last-parse memo only hits where a validation precedes the mapping.
+    private RequestBook[] requestBooks;
+
+    private int next;
+
+    private BookEntity bookEntity;
+
+    @Setup
+    public void setUp() {
+        requestBooks = new RequestBook[]{
+                new RequestBook("Clean Code", "Robert C. Martin", "Pearson", new String("2020-01-01 10:00:00")),
+                new RequestBook("Clean Code", "Robert C. Martin", "Pearson", new String("2020-01-01 10:00:00"))};
+        bookEntity = new BookEntity();
+        bookEntity.setId(1L);
+        bookEntity.setTitle("Clean Code");
+        bookEntity.setAuthor("Robert C. Martin");
+        bookEntity.setPublishedDate(LocalDateTime.of(2020, 1, 1, 10, 0, 0));
+    }
+
+    @Benchmark
+    public BookEntity toEntity() {
+        return bookMapper.toEntity(nextRequestBook());
+    }
+
+    @Benchmark
+    public BookEntity validateThenToEntity() {
+        RequestBook requestBook = nextRequestBook();
+        yearValidator.isValid(requestBook.publishedDate(), null);
+        return bookMapper.toEntity(requestBook);
+    }
+
+    @Benchmark
+    public ResponseBook toResponse() {
+        return bookMapper.toResponse(bookEntity);
+    }
+
+    private RequestBook nextRequestBook() {
+        next ^= 1;
+        return requestBooks[next];
+    }
+}
@@ -0,0 +1,71 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefix search over a synthetic catalogue. Sampled, so the report includes p99 and p99.9.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "clean", "code", "coder", "architecture", "domain", "driven", "design", "patterns", "refactoring",
+            "pragmatic", "programmer", "programming", "java", "concurrency", "practice", "effective", "modern",
+            "systems", "data", "intensive", "applications", "release", "site", "reliability", "engineering",
+            "distributed", "algorithms", "structures", "introduction", "compilers", "networks", "security"};
+
+    private static final String[] AUTHORS = {
+            "Robert C. Martin", "Martin Fowler", "Eric Evans", "Joshua Bloch", "Brian Goetz", "Martin Kleppmann",
+            "Michael Nygard", "Donald Knuth", "Andrew Tanenbaum", "Ross Anderson"};
+
+    @Param("100000")
+    public int books;
+
+    private BookSearchIndex index;
+
+    private String[] queries;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new BookSearchIndex(new SimpleDriverDataSource(), new ExportProperties(1000),
+                new BookMetrics(new SimpleMeterRegistry()));
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime published = LocalDateTime.of(2020, 1, 1, 10, 0, 0);
+        for (int i = 1; i <= books; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            index.add(new ResponseBook(i, title, AUTHORS[random.nextInt(AUTHORS.length)], published));
+        }
+        queries = new String[]{"clean", "prog", "domain design", "mart", "java conc", "refactoring fowler", "dist sys"};
+    }
+
+    @Benchmark
+    public List<ResponseBook> search() {
+        next = (next + 1) % queries.length;
+        return index.search(queries[next], 10);
+    }
+}
@@ -0,0 +1,92 @@
+package com.th.ascend.book;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link BookService} reads and writes against the H2 database of the {@code test} profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookServiceBenchmark {
+
+    private static final int AUTHORS = 100;
+
+    private static final int BOOKS_PER_AUTHOR = 200;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private AuthorListingCache authorListingCache;
+
+    private RequestBookByAuthor request;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(BookApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off", "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+        authorListingCache = context.getBean(AuthorListingCache.class);
+
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0, 0);
+        for (int author = 0; author < AUTHORS; author++) {
+            List<BookEntity> books = new ArrayList<>(BOOKS_PER_AUTHOR);
+            for (int book = 0; book < BOOKS_PER_AUTHOR; book++) {
+                BookEntity bookEntity = new BookEntity();
+                bookEntity.setTitle("Title " + book);
+                bookEntity.setAuthor("Author " + author);
+                bookEntity.setPublishedDate(base.plusDays(book));
+                books.add(bookEntity);
+            }
+            bookRepository.saveAll(books);
+        }
+        request = new RequestBookByAuthor("Author 0");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ResponseBook> getBookListByAuthorCached() {
+        return bookService.getBookListByAuthor(request);
+    }
+
+    @Benchmark
+    public List<ResponseBook> getBookListByAuthorUncached() {
+        authorListingCache.invalidate(AuthorKeys.normalize(request.author()));
+        return bookService.getBookListByAuthor(request);
+    }
+
+    @Benchmark
+    public ResponseBook createBook() {
+        return bookService.createBook(new RequestBook("New Title", "Author 1", "Publisher", "2020-01-01 10:00:00"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Published date validation and deserialization for CE, BE and invalid input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PublishedDateBenchmark {
+
+    @Param({"2020-01-15 10:30:00", "2567-01-15 10:30:00", "2020-13-45 99:99:99"})
+    String publishedDate;
+
+    private final YearValidator yearValidator = new YearValidator();
+
+    // Two equal but distinct strings, alternated so the per-thread last-parse memo never hits.
+    private String[] inputs;
+
+    private int next;
+
+    private ObjectReader localDateTimeReader;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        inputs = new String[]{new String(publishedDate), new String(publishedDate)};
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(LocalDateTime.class, new BuddhistDateDeserializer()));
+        localDateTimeReader = objectMapper.readerFor(LocalDateTime.class);
+        json = ("\"" + publishedDate + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return yearValidator.isValid(nextInput(), null);
+    }
+
+    @Benchmark
+    public LocalDateTime deserialize() throws IOException {
+        try {
+            return localDateTimeReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private String nextInput() {
+        next ^= 1;
+        return inputs[next];
+    }
+}
@@ -0,0 +1,410 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test of the book API. Seeds a {@link SyntheticCatalog} through {@code POST /api/v1/books/bulk}, then
+ * drives a weighted mix of reads and writes from {@code --threads} clients, and reports throughput and
+ * p50/p99/p99.9 latency per operation against optional SLOs.
+ * <p>
+ * The application is started in-process on a random port with the {@code test} profile (H2 in MySQL mode).
+ * Arguments the harness does not know, such as {@code --spring.datasource.url=...}, are passed to it;
+ * {@code --base-url} targets an already running server instead. Request authors follow the catalogue's
+ * Zipf weights, so reads hit hot authors as often as production traffic would.
+ * <p>
+ * With {@code --rate}, clients send on a fixed schedule and latency is measured from when each request was
+ * due, so a stall is charged to every request queued behind it. Without it, each client sends as soon as
+ * its previous response arrives, which measures capacity but understates tail latency under a stall.
+ */
+public final class BookLoadTest {
+
+    private static final long MAXIMUM_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private static final LocalDate FIRST_RELEASE = LocalDate.of(1950, 1, 1);
+
+    private static final int RELEASE_DAYS = 75 * 365;
+
+    private BookLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        SyntheticCatalog catalog = new SyntheticCatalog(options.books(), options.authors(), options.zipfExponent(),
+                options.buddhistEraShare(), options.seed());
+        ConfigurableApplicationContext context = null;
+        boolean passed;
+        try {
+            URI baseUrl = options.baseUrl();
+            if (baseUrl == null) {
+                // DevTools is on the test class path; its restart would run this harness a second time.
+                System.setProperty("spring.devtools.restart.enabled", "false");
+                context = new SpringApplicationBuilder(BookApplication.class)
+                        .run(options.applicationArgs().toArray(String[]::new));
+                baseUrl = URI.create("http://localhost:"
+                        + ((WebServerApplicationContext) context).getWebServer().getPort());
+            }
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            System.out.printf(Locale.ROOT,
+                    "Catalogue: %,d books by %,d authors, Zipf exponent %.2f, %.0f%% Buddhist Era dates, seed %d%n",
+                    catalog.books(), catalog.authors(), options.zipfExponent(), options.buddhistEraShare() * 100,
+                    options.seed());
+            if (options.seedCatalog()) {
+                seed(client, baseUrl, catalog);
+            }
+            Traffic traffic = new Traffic(client, baseUrl, catalog, options);
+            System.out.printf(Locale.ROOT, "Warm-up %d s, measuring %d s, %d clients, %s, mix %s%n",
+                    options.warmup().toSeconds(), options.duration().toSeconds(), options.threads(),
+                    options.rate() > 0 ? "open loop at %,.0f req/s".formatted(options.rate()) : "closed loop",
+                    options.mix());
+            traffic.run(options.warmup());
+            passed = traffic.run(options.duration()).report(options);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static void seed(HttpClient client, URI baseUrl, SyntheticCatalog catalog)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/v1/books/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(catalog::ndjson))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+        ResponseBulkBook loaded = new ObjectMapper().readValue(response.body(), ResponseBulkBook.class);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Seeded %,d books (%,d rejected) in %.1f s, %,.0f books/s%n",
+                loaded.created(), loaded.failed(), seconds, loaded.created() / seconds);
+    }
+
+    enum Operation {
+        LISTING, STATS, SEARCH, RELEASES, CREATE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * A tail author may have no books, so a missing statistics row is an answer, not an error.
+         */
+        boolean succeeded(int status) {
+            return status / 100 == 2 || this == STATS && status == 404;
+        }
+    }
+
+    private static final class Traffic {
+
+        private final HttpClient client;
+
+        private final URI baseUrl;
+
+        private final SyntheticCatalog catalog;
+
+        private final Options options;
+
+        private final Operation[] operations;
+
+        private final int[] cumulativeWeights;
+
+        private final AtomicLong createdTitles;
+
+        private int runs;
+
+        private Traffic(HttpClient client, URI baseUrl, SyntheticCatalog catalog, Options options) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.catalog = catalog;
+            this.options = options;
+            this.operations = options.mix().keySet().toArray(Operation[]::new);
+            this.cumulativeWeights = new int[operations.length];
+            int total = 0;
+            for (int i = 0; i < operations.length; i++) {
+                total += options.mix().get(operations[i]);
+                cumulativeWeights[i] = total;
+            }
+            this.createdTitles = new AtomicLong(catalog.books());
+        }
+
+        private Result run(Duration duration) throws InterruptedException {
+            Result result = new Result();
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            long interval = options.rate() > 0 ? (long) (1e9 * options.threads() / options.rate()) : 0;
+            int run = runs++;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < options.threads(); i++) {
+                    SplittableRandom random = new SplittableRandom(options.seed() * 31 + run * 1_000_003L + i);
+                    long first = start + interval * i / options.threads();
+                    clients.submit(() -> {
+                        drive(random, first, interval, end, result);
+                        return null;
+                    });
+                }
+            }
+            result.elapsedNanos = System.nanoTime() - start;
+            return result;
+        }
+
+        private void drive(SplittableRandom random, long first, long interval, long end, Result result)
+                throws InterruptedException {
+            long due = first;
+            while (true) {
+                long now = System.nanoTime();
+                if (interval == 0) {
+                    due = now;
+                } else if (due > now) {
+                    TimeUnit.NANOSECONDS.sleep(due - now);
+                }
+                if (due >= end) {
+                    return;
+                }
+                Operation operation = pick(random);
+                HttpRequest request = request(operation, random);
+                int status;
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                }
+                result.record(operation, status, System.nanoTime() - due);
+                due += interval;
+            }
+        }
+
+        private Operation pick(SplittableRandom random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int i = 0;
+            while (value >= cumulativeWeights[i]) {
+                i++;
+            }
+            return operations[i];
+        }
+
+        private HttpRequest request(Operation operation, SplittableRandom random) {
+            String author = SyntheticCatalog.author(catalog.authorRank(random));
+            return switch (operation) {
+                case LISTING -> get("/api/v1/books?author=" + encode(author));
+                case STATS -> get("/api/v1/books/stats?author=" + encode(author));
+                case SEARCH -> get("/api/v1/books/search?q="
+                        + encode(SyntheticCatalog.word(random) + " " + SyntheticCatalog.word(random).substring(0, 3)));
+                case RELEASES -> {
+                    LocalDate from = FIRST_RELEASE.plusDays(random.nextInt(RELEASE_DAYS));
+                    yield get("/api/v1/books/releases?from=" + from + "&to=" + from.plusDays(30));
+                }
+                case CREATE -> HttpRequest.newBuilder(baseUrl.resolve("/api/v1/books"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(SyntheticCatalog.toJson(
+                                catalog.book(random, createdTitles.incrementAndGet()))))
+                        .build();
+            };
+        }
+
+        private HttpRequest get(String pathAndQuery) {
+            return HttpRequest.newBuilder(baseUrl.resolve(pathAndQuery)).GET().build();
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class Result {
+
+        private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        private long elapsedNanos;
+
+        private Result() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new ConcurrentHistogram(MAXIMUM_LATENCY_MICROS, 3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        private void record(Operation operation, int status, long latencyNanos) {
+            if (operation.succeeded(status)) {
+                latencies.get(operation).recordValue(Math.min(latencyNanos / 1000, MAXIMUM_LATENCY_MICROS));
+            } else {
+                errors.get(operation).increment();
+            }
+        }
+
+        /**
+         * Prints the report and returns whether every operation met the SLOs.
+         */
+        private boolean report(Options options) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf(Locale.ROOT, "%n%-10s %10s %8s %10s %9s %9s %9s %9s%n",
+                    "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            Histogram all = new Histogram(MAXIMUM_LATENCY_MICROS, 3);
+            long allErrors = 0;
+            List<String> violations = new ArrayList<>();
+            for (Operation operation : options.mix().keySet()) {
+                Histogram histogram = latencies.get(operation);
+                long operationErrors = errors.get(operation).sum();
+                print(operation.label(), histogram, operationErrors, seconds);
+                violations.addAll(violations(operation.label(), histogram, options));
+                all.add(histogram);
+                allErrors += operationErrors;
+            }
+            print("all", all, allErrors, seconds);
+            if (options.sloP99() == null && options.sloP999() == null) {
+                return true;
+            }
+            List<String> slos = new ArrayList<>();
+            if (options.sloP99() != null) {
+                slos.add("p99 <= " + options.sloP99().toMillis() + " ms");
+            }
+            if (options.sloP999() != null) {
+                slos.add("p99.9 <= " + options.sloP999().toMillis() + " ms");
+            }
+            System.out.printf(Locale.ROOT, "%nSLO %s: %s%n", String.join(", ", slos),
+                    violations.isEmpty() ? "PASS" : "FAIL");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            return violations.isEmpty();
+        }
+
+        private static List<String> violations(String label, Histogram histogram, Options options) {
+            List<String> violations = new ArrayList<>();
+            if (histogram.getTotalCount() == 0) {
+                return violations;
+            }
+            if (options.sloP99() != null && histogram.getValueAtPercentile(99) > options.sloP99().toNanos() / 1000) {
+                violations.add("%s p99 %.1f ms".formatted(label, histogram.getValueAtPercentile(99) / 1000.0));
+            }
+            if (options.sloP999() != null
+                    && histogram.getValueAtPercentile(99.9) > options.sloP999().toNanos() / 1000) {
+                violations.add("%s p99.9 %.1f ms".formatted(label, histogram.getValueAtPercentile(99.9) / 1000.0));
+            }
+            return violations;
+        }
+
+        private static void print(String label, Histogram histogram, long errors, double seconds) {
+            long requests = histogram.getTotalCount() + errors;
+            System.out.printf(Locale.ROOT, "%-10s %,10d %,8d %,10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    label, requests, errors, requests / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * Harness options as {@code --name=value}; every other argument goes to the application.
+     */
+    record Options(
+            long books,
+            int authors,
+            double zipfExponent,
+            double buddhistEraShare,
+            long seed,
+            boolean seedCatalog,
+            int threads,
+            double rate,
+            Duration warmup,
+            Duration duration,
+            Map<Operation, Integer> mix,
+            Duration sloP99,
+            Duration sloP999,
+            URI baseUrl,
+            List<String> applicationArgs) {
+
+        private static final Set<String> OPTIONAL = Set.of("slo-p99", "slo-p999", "base-url");
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>(Map.of(
+                    "books", "1000000",
+                    "authors", "100000",
+                    "zipf-exponent", "1.0",
+                    "buddhist-era-share", "0.2",
+                    "seed", "42",
+                    "seed-catalog", "true",
+                    "threads", "16",
+                    "rate", "0",
+                    "warmup", "10s",
+                    "duration", "60s"));
+            values.put("mix", "listing=70,stats=10,search=10,releases=5,create=5");
+            List<String> applicationArgs = new ArrayList<>(List.of(
+                    "--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=WARN"));
+            boolean profileGiven = false;
+            for (String arg : args) {
+                int equals = arg.indexOf('=');
+                String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+                if (name != null && (values.containsKey(name) || OPTIONAL.contains(name))) {
+                    values.put(name, arg.substring(equals + 1));
+                } else {
+                    profileGiven |= arg.startsWith("--spring.profiles.active=");
+                    applicationArgs.add(arg);
+                }
+            }
+            if (!profileGiven) {
+                applicationArgs.add("--spring.profiles.active=test");
+            }
+            Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+            for (String entry : values.get("mix").split(",")) {
+                String[] weight = entry.split("=");
+                int value = Integer.parseInt(weight[1].trim());
+                if (value > 0) {
+                    mix.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), value);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+            }
+            return new Options(
+                    Long.parseLong(values.get("books")),
+                    Integer.parseInt(values.get("authors")),
+                    Double.parseDouble(values.get("zipf-exponent")),
+                    Double.parseDouble(values.get("buddhist-era-share")),
+                    Long.parseLong(values.get("seed")),
+                    Boolean.parseBoolean(values.get("seed-catalog")),
+                    Integer.parseInt(values.get("threads")),
+                    Double.parseDouble(values.get("rate")),
+                    DurationStyle.detectAndParse(values.get("warmup")),
+                    DurationStyle.detectAndParse(values.get("duration")),
+                    mix,
+                    values.containsKey("slo-p99") ? DurationStyle.detectAndParse(values.get("slo-p99")) : null,
+                    values.containsKey("slo-p999") ? DurationStyle.detectAndParse(values.get("slo-p999")) : null,
+                    values.containsKey("base-url") ? URI.create(values.get("base-url")) : null,
+                    applicationArgs);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.th.ascend.book;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible book catalogue: the same parameters and seed always give the same books.
+ * <p>
+ * Authors are drawn from a Zipf distribution over {@code authors} ranks, so author {@code k} writes a share
+ * of the books proportional to {@code 1 / k^exponent}: a few authors with tens of thousands of books and a
+ * long tail with one or two. Published dates are spread uniformly over 1950 to 2024; a
+ * {@code buddhistEraShare} of them is written with a Buddhist Era year, as Thai clients send them.
+ */
+public final class SyntheticCatalog {
+
+    private static final String[] WORDS = {
+            "clean", "code", "coder", "architecture", "domain", "driven", "design", "patterns", "refactoring",
+            "pragmatic", "programmer", "programming", "java", "concurrency", "practice", "effective", "modern",
+            "systems", "data", "intensive", "applications", "release", "site", "reliability", "engineering",
+            "distributed", "algorithms", "structures", "introduction", "compilers", "networks", "security"};
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss");
+
+    private static final LocalDateTime FIRST_PUBLISHED = LocalDateTime.of(1950, 1, 1, 0, 0, 0);
+
+    private static final long PUBLISHED_SECONDS =
+            Duration.between(FIRST_PUBLISHED, LocalDateTime.of(2025, 1, 1, 0, 0, 0)).toSeconds();
+
+    private final long books;
+
+    private final double buddhistEraShare;
+
+    private final long seed;
+
+    private final double[] cumulative;
+
+    public SyntheticCatalog(long books, int authors, double exponent, double buddhistEraShare, long seed) {
+        this.books = books;
+        this.buddhistEraShare = buddhistEraShare;
+        this.seed = seed;
+        this.cumulative = new double[authors];
+        double sum = 0;
+        for (int rank = 1; rank <= authors; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < authors; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    public long books() {
+        return books;
+    }
+
+    public int authors() {
+        return cumulative.length;
+    }
+
+    /**
+     * Author rank, from 1 for the most prolific, drawn with the catalogue's Zipf weights.
+     */
+    public int authorRank(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1) + 1;
+    }
+
+    public static String author(int rank) {
+        return "Author " + rank;
+    }
+
+    public static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    public RequestBook book(SplittableRandom random, long number) {
+        String title = word(random) + " " + word(random) + " " + word(random) + " " + number;
+        return new RequestBook(title, author(authorRank(random)), "Synthetic", publishedDate(random));
+    }
+
+    /**
+     * A date in {@link PublishedDates#PATTERN}, with the year in the Buddhist Era for a
+     * {@code buddhistEraShare} of calls.
+     */
+    public String publishedDate(SplittableRandom random) {
+        LocalDateTime published = FIRST_PUBLISHED.plusSeconds(random.nextLong(PUBLISHED_SECONDS));
+        int year = published.getYear();
+        if (random.nextDouble() < buddhistEraShare) {
+            year += PublishedDates.BUDDHIST_ERA_OFFSET;
+        }
+        return year + "-" + DATE_TIME.format(published);
+    }
+
+    /**
+     * The whole catalogue as NDJSON for {@code POST /api/v1/books/bulk}, generated as it is read.
+     */
+    public InputStream ndjson() {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new InputStream() {
+
+            private long written;
+
+            private byte[] line = new byte[0];
+
+            private int position;
+
+            @Override
+            public int read() {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                int read = 0;
+                while (read < length) {
+                    if (position == line.length) {
+                        if (written == books) {
+                            break;
+                        }
+                        line = toJson(book(random, ++written)).getBytes(StandardCharsets.UTF_8);
+                        position = 0;
+                    }
+                    int count = Math.min(length - read, line.length - position);
+                    System.arraycopy(line, position, buffer, offset + read, count);
+                    position += count;
+                    read += count;
+                }
+                return read == 0 ? -1 : read;
+            }
+        };
+    }
+
+    /**
+     * Titles and authors are letters, digits and spaces only, so they need no escaping.
+     */
+    public static String toJson(RequestBook book) {
+        return "{\"title\":\"" + book.title() + "\",\"author\":\"" + book.author() + "\",\"publisher\":\""
+                + book.publisher() + "\",\"publishedDate\":\"" + book.publishedDate() + "\"}\n";
+    }
+}
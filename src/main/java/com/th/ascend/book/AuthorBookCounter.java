@@ -0,0 +1,51 @@
+package com.th.ascend.book;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-author book totals for listings that opt in to {@code includeTotal}, keyed by
+ * {@linkplain AuthorKeys author key}. A total is counted once
+ * from the database and then kept current by {@link #increment(String)}; entries expire so a count
+ * that raced with a concurrent insert heals on its own.
+ */
+@Component
+public class AuthorBookCounter {
+
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(5);
+
+    private final LoadingCache<String, AtomicLong> counts;
+
+    public AuthorBookCounter(BookRepository bookRepository, RecentAuthorChanges recentAuthorChanges) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(EXPIRE_AFTER_WRITE)
+                .build(authorKey -> new AtomicLong(
+                        recentAuthorChanges.load(authorKey, () -> bookRepository.countByAuthorKey(authorKey))));
+    }
+
+    public long count(String author) {
+        return counts.get(author).get();
+    }
+
+    public void increment(String author) {
+        AtomicLong count = counts.getIfPresent(author);
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public void invalidate(String author) {
+        counts.invalidate(author);
+    }
+
+    public void invalidateAll() {
+        counts.invalidateAll();
+    }
+}
@@ -0,0 +1,19 @@
+package com.th.ascend.book;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of {@link BookRepository#findNewestByAuthorKeys}, tagged with the author key it was ranked under.
+ */
+public interface AuthorBookRow {
+
+    String getAuthorKey();
+
+    long getId();
+
+    String getTitle();
+
+    String getAuthor();
+
+    LocalDateTime getPublishedDate();
+}
@@ -0,0 +1,272 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tells every instance of the service which authors another instance changed, so each can evict just
+ * those authors from its own caches and index the new books for search.
+ * <p>
+ * Writers {@linkplain #publish(Collection) publish} the authors of the books they insert into the
+ * {@code author_change} outbox table, each with the lowest and highest id of its books in the write, in
+ * the same transaction, so a change is announced exactly when it commits. Every instance polls the table
+ * every {@code book.author-change-feed.poll-interval}, {@linkplain BookSearchIndex#load(long, long) loads}
+ * the other instances' books in those id ranges into its search index and passes their authors to
+ * {@link AuthorChanges#booksChanged(Collection)}; its own changes were applied when they committed. A
+ * cached listing or search is therefore stale on other instances for at most one poll interval.
+ * <p>
+ * Ids are handed out when a row is inserted but become visible when its transaction commits, so a lower
+ * id can appear after a higher one. Ids skipped over are rechecked until {@code gap-timeout} has passed;
+ * most are rolled back or left unused by the database and never appear. Rows older than {@code retention}
+ * are deleted, and an instance that has not polled for that long evicts everything and rebuilds its
+ * search index.
+ */
+@Slf4j
+@Component
+public class AuthorChangeFeed implements SmartLifecycle, MeterBinder {
+
+    private static final String INSERT = "INSERT INTO author_change"
+            + " (author_key, first_book_id, last_book_id, origin, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER = "SELECT id, author_key, first_book_id, last_book_id, origin"
+            + " FROM author_change WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_BETWEEN = "SELECT id, author_key, first_book_id, last_book_id, origin"
+            + " FROM author_change WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    private static final String SELECT_SETTLED =
+            "SELECT COALESCE(MAX(id), 0) FROM author_change WHERE created_at < ?";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM author_change WHERE created_at < ?";
+
+    /**
+     * A jump of more ids than this, such as after a large rolled back batch, is not tracked id by id.
+     */
+    private static final int MAXIMUM_GAP = 10_000;
+
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AuthorChanges authorChanges;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final AuthorChangeFeedProperties properties;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder applied = new LongAdder();
+
+    // Poller state, guarded by this.
+    private long highest;
+
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+
+    private long lastPolled;
+
+    private long lastPurged;
+
+    private ScheduledExecutorService poller;
+
+    public AuthorChangeFeed(DataSource dataSource, AuthorChanges authorChanges, BookSearchIndex bookSearchIndex,
+                            AuthorChangeFeedProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.authorChanges = authorChanges;
+        this.bookSearchIndex = bookSearchIndex;
+        this.properties = properties;
+    }
+
+    /**
+     * Announces that these books' authors changed. Must run in the transaction that writes the books.
+     */
+    public void publish(Collection<BookEntity> books) {
+        if (!properties.enabled()) {
+            return;
+        }
+        Map<String, BookIds> authors = new TreeMap<>();
+        for (BookEntity book : books) {
+            authors.merge(book.getAuthorKey(), new BookIds(book.getId(), book.getId()), BookIds::span);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<Object[]> rows = new ArrayList<>(authors.size());
+        authors.forEach((authorKey, ids) -> rows.add(new Object[]{authorKey, ids.first(), ids.last(), origin, now}));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        published.add(rows.size());
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        seek();
+        long interval = properties.pollInterval().toMillis();
+        poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("author-change-feed").factory());
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                poll();
+            } catch (RuntimeException e) {
+                log.warn("Polling author changes failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+
+    /**
+     * Starts reading after the changes that were already settled when this instance started. Its caches
+     * are empty, and younger rows are read again in case a lower id is still to commit.
+     */
+    synchronized void seek() {
+        long now = clock.millis();
+        highest = jdbcTemplate.queryForObject(SELECT_SETTLED, Long.class,
+                LocalDateTime.now(clock).minus(properties.gapTimeout()));
+        gaps.clear();
+        lastPolled = now;
+    }
+
+    /**
+     * Reads the changes committed since the last poll and evicts the authors other instances changed.
+     */
+    synchronized void poll() {
+        long now = clock.millis();
+        if (now - lastPolled > properties.retention().toMillis()) {
+            log.warn("No author changes read for {} ms, longer than their retention; evicting all authors",
+                    now - lastPolled);
+            authorChanges.allBooksChanged();
+            bookSearchIndex.rebuild();
+            seek();
+        }
+        Set<String> changed = new TreeSet<>();
+        List<BookIds> added = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            for (Change change : query(SELECT_BETWEEN, gaps.firstKey(), gaps.lastKey())) {
+                if (gaps.remove(change.id()) != null) {
+                    collect(change, changed, added);
+                }
+            }
+        }
+        List<Change> changes;
+        do {
+            changes = query(SELECT_AFTER, highest, properties.batchSize());
+            for (Change change : changes) {
+                if (change.id() - highest <= MAXIMUM_GAP) {
+                    for (long missing = highest + 1; missing < change.id(); missing++) {
+                        gaps.put(missing, now + properties.gapTimeout().toMillis());
+                    }
+                }
+                highest = change.id();
+                collect(change, changed, added);
+            }
+        } while (changes.size() == properties.batchSize());
+        gaps.values().removeIf(deadline -> deadline <= now);
+        for (BookIds ids : coalesce(added)) {
+            bookSearchIndex.load(ids.first(), ids.last());
+        }
+        if (!changed.isEmpty()) {
+            authorChanges.booksChanged(changed);
+            applied.add(changed.size());
+        }
+        lastPolled = now;
+        if (now - lastPurged >= PURGE_INTERVAL_MILLIS) {
+            jdbcTemplate.update(DELETE_EXPIRED, LocalDateTime.now(clock).minus(properties.retention()));
+            lastPurged = now;
+        }
+    }
+
+    private List<Change> query(String sql, Object... args) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Change(rs.getLong(1), rs.getString(2),
+                new BookIds(rs.getLong(3), rs.getLong(4)), rs.getString(5)), args);
+    }
+
+    private void collect(Change change, Set<String> changed, List<BookIds> added) {
+        if (!origin.equals(change.origin())) {
+            changed.add(change.authorKey());
+            added.add(change.bookIds());
+        }
+    }
+
+    /**
+     * Merges overlapping and adjacent id ranges, so a bulk load spread over many authors is read once.
+     */
+    private static List<BookIds> coalesce(List<BookIds> ranges) {
+        ranges.sort(Comparator.comparingLong(BookIds::first));
+        List<BookIds> merged = new ArrayList<>();
+        for (BookIds range : ranges) {
+            BookIds last = merged.isEmpty() ? null : merged.getLast();
+            if (last != null && range.first() <= last.last() + 1) {
+                merged.set(merged.size() - 1, last.span(range));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("book.author-change-feed.published", published, LongAdder::sum)
+                .description("Author changes this instance announced to the others")
+                .register(registry);
+        FunctionCounter.builder("book.author-change-feed.applied", applied, LongAdder::sum)
+                .description("Authors evicted because another instance changed them")
+                .register(registry);
+        Gauge.builder("book.author-change-feed.gaps", this, feed -> feed.gapCount())
+                .description("Skipped change ids still awaited")
+                .register(registry);
+    }
+
+    private synchronized int gapCount() {
+        return gaps.size();
+    }
+
+    private record Change(long id, String authorKey, BookIds bookIds, String origin) {
+    }
+
+    private record BookIds(long first, long last) {
+
+        private BookIds span(BookIds other) {
+            return new BookIds(Math.min(first, other.first), Math.max(last, other.last));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "book.author-change-feed")
+public record AuthorChangeFeedProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("1s")
+        Duration pollInterval,
+
+        @DefaultValue("1000")
+        int batchSize,
+
+        @DefaultValue("30s")
+        Duration gapTimeout,
+
+        @DefaultValue("1h")
+        Duration retention
+) {
+}
@@ -0,0 +1,59 @@
+package com.th.ascend.book;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Single place a write reports which authors it changed, after it has committed. Keeps the derived
+ * per-author state (totals, cached listings and response bodies, and version stamps) in step, and in the right order: a
+ * stamp only moves forward once the listings it describes can no longer be served stale. The author is marked
+ * {@linkplain RecentAuthorChanges recently changed} first, so the reloads that follow read the primary.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorChanges {
+
+    private final AuthorBookCounter authorBookCounter;
+
+    private final AuthorListingCache authorListingCache;
+
+    private final AuthorListingBytes authorListingBytes;
+
+    private final AuthorVersions authorVersions;
+
+    private final RecentAuthorChanges recentAuthorChanges;
+
+    public void bookAdded(String authorKey) {
+        recentAuthorChanges.changed(authorKey);
+        authorBookCounter.increment(authorKey);
+        authorListingCache.invalidate(authorKey);
+        authorListingBytes.invalidate(authorKey);
+        authorVersions.bump(authorKey);
+    }
+
+    /**
+     * For writes that cannot tell exactly how many books each author gained, such as partially failed batches.
+     */
+    public void booksChanged(Collection<String> authorKeys) {
+        for (String authorKey : authorKeys) {
+            recentAuthorChanges.changed(authorKey);
+            authorBookCounter.invalidate(authorKey);
+            authorListingCache.invalidate(authorKey);
+            authorListingBytes.invalidate(authorKey);
+            authorVersions.bump(authorKey);
+        }
+    }
+
+    /**
+     * For when this instance may have missed changes to any author.
+     */
+    public void allBooksChanged() {
+        recentAuthorChanges.allChanged();
+        authorBookCounter.invalidateAll();
+        authorListingCache.invalidateAll();
+        authorListingBytes.invalidateAll();
+        authorVersions.bumpAll();
+    }
+}
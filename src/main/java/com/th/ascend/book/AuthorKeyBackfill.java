@@ -0,0 +1,114 @@
+package com.th.ascend.book;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills {@code book.author_key} for rows written before the column existed (see
+ * {@code db/migration/V3__book_author_key.sql}). The folding is done in Java because the database
+ * cannot apply the same Unicode normalization. Runs before the application is ready, so listings never
+ * miss a book because its key is missing; with no such rows it costs one index probe. Runs first, so
+ * the {@link AuthorSummaries} rebuild sees every key.
+ * <p>
+ * Rows are read and updated in chunks of {@code book.bulk.batch-size} in id order, so memory stays
+ * bounded however many rows the migration left. On MySQL the instances starting together wait on a named
+ * lock, so one of them does the work and the others then find nothing left. Updates only fill keys that
+ * are still missing, so a chunk written twice is harmless.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AuthorKeyBackfill implements ApplicationRunner {
+
+    private static final String LOCK_NAME = "book.author_key_backfill";
+
+    private static final String SELECT_MISSING =
+            "SELECT id, author FROM book WHERE author_key IS NULL AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_KEY = "UPDATE book SET author_key = ? WHERE id = ? AND author_key IS NULL";
+
+    private final DataSource dataSource;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final int batchSize;
+
+    public AuthorKeyBackfill(DataSource dataSource, BulkLoadProperties bulkLoadProperties) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = bulkLoadProperties.batchSize();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!isMySql()) {
+            backfill();
+            return;
+        }
+        // A named lock is held by its session, so it gets a connection of its own for the whole run.
+        try (Connection lock = dataSource.getConnection()) {
+            if (!lockQuery(lock, "SELECT GET_LOCK(?, -1)")) {
+                throw new IllegalStateException("Could not take lock " + LOCK_NAME);
+            }
+            try {
+                backfill();
+            } finally {
+                lockQuery(lock, "SELECT RELEASE_LOCK(?)");
+            }
+        }
+    }
+
+    private void backfill() {
+        long afterId = 0;
+        int backfilled = 0;
+        while (true) {
+            List<Object[]> keys = new ArrayList<>(batchSize);
+            jdbcTemplate.query(SELECT_MISSING, rs -> {
+                keys.add(new Object[]{AuthorKeys.normalize(rs.getString(2)), rs.getLong(1)});
+            }, afterId, batchSize);
+            if (keys.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_KEY, keys);
+            backfilled += keys.size();
+            afterId = (long) keys.getLast()[1];
+        }
+        if (backfilled > 0) {
+            log.info("Backfilled author_key for {} books", backfilled);
+        }
+    }
+
+    private static boolean lockQuery(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private boolean isMySql() {
+        try {
+            return "MySQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.th.ascend.book;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Folds an author name to the lookup key stored in {@code book.author_key}.
+ * <p>
+ * The name is decomposed (NFKD), its Latin combining accents (U+0300 to U+036F) are dropped, and it is
+ * recomposed (NFKC), lower-cased, trimmed and has its whitespace runs collapsed to single spaces. So
+ * "George Orwell ", "george  orwell" and "Géorge Orwell" share a key. Thai vowel and tone marks lie
+ * outside that block and are kept, so Thai names only differ in key when they differ in text. Plain
+ * ASCII names skip the Unicode normalization.
+ */
+public final class AuthorKeys {
+
+    private AuthorKeys() {
+    }
+
+    public static String normalize(String author) {
+        if (author == null) {
+            return null;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < author.length() && ascii; i++) {
+            ascii = author.charAt(i) < 0x80;
+        }
+        String folded = collapse(ascii ? author : Normalizer.normalize(author, Normalizer.Form.NFKD));
+        if (!ascii) {
+            folded = Normalizer.normalize(folded, Normalizer.Form.NFKC);
+        }
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    private static String collapse(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') {
+                continue;
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = !key.isEmpty();
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            key.append(c);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches author listings as the finished response body: JSON or CBOR bytes, by row or by column, and,
+ * when worth it, their gzip encoding. A hit is written to the response as is, with no mapping or
+ * serialization.
+ * <p>
+ * Each author's listings are filed under the {@linkplain AuthorVersions version stamp} they were loaded
+ * at, and a lookup for a newer stamp starts the author's table afresh. So a body can only be served for
+ * the version it was rendered from, even if {@link #invalidate(String)} raced the load. The table is
+ * bounded by author count; Caffeine's frequency-based admission keeps the hot authors.
+ */
+@Component
+public class AuthorListingBytes implements MeterBinder {
+
+    private static final String CACHE_NAME = "authorListingBytes";
+
+    private final Cache<String, Listings> listings;
+
+    private final ObjectWriter jsonWriter;
+
+    private final ObjectWriter cborWriter;
+
+    private final int maximumListingsPerAuthor;
+
+    private final boolean gzip;
+
+    private final long gzipMinSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public AuthorListingBytes(AuthorListingBytesProperties properties, ObjectMapper objectMapper,
+                              CborHttpMessageConverter cborHttpMessageConverter) {
+        this.maximumListingsPerAuthor = properties.maximumListingsPerAuthor();
+        this.gzip = properties.gzip();
+        this.gzipMinSize = properties.gzipMinSize().toBytes();
+        this.jsonWriter = objectMapper.writer();
+        this.cborWriter = cborHttpMessageConverter.getObjectMapper().writer();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(properties.maximumAuthors())
+                .build();
+    }
+
+    /**
+     * Returns the rendered listing for {@code stamp}, loading and rendering it on a miss. A {@code null}
+     * author key is rendered without caching.
+     */
+    public Body get(String authorKey, AuthorVersions.Stamp stamp, Key key, Supplier<ResponseBookPage> loader) {
+        if (authorKey == null) {
+            return render(key, loader.get());
+        }
+        long version = stamp.version();
+        Listings current = listings.getIfPresent(authorKey);
+        if (current == null || current.version() < version) {
+            current = listings.asMap().compute(authorKey, (ignored, existing) ->
+                    existing != null && existing.version() >= version ? existing : new Listings(version));
+        }
+        Body body = current.bodies().get(key);
+        if (body != null && current.version() == version) {
+            hits.increment();
+            return body;
+        }
+        misses.increment();
+        body = render(key, loader.get());
+        // A newer table means a write landed after our stamp was read; its readers render their own body.
+        if (current.version() == version && current.bodies().size() < maximumListingsPerAuthor) {
+            current.bodies().putIfAbsent(key, body);
+        }
+        return body;
+    }
+
+    public void invalidate(String authorKey) {
+        listings.invalidate(authorKey);
+    }
+
+    public void invalidateAll() {
+        listings.invalidateAll();
+    }
+
+    private Body render(Key key, ResponseBookPage page) {
+        ObjectWriter writer = key.format() == Format.CBOR ? cborWriter : jsonWriter;
+        Object value = key.columnar() ? ResponseBookColumns.of(page.books(), page.nextCursor()) : page.books();
+        try {
+            byte[] bytes = writer.writeValueAsBytes(value);
+            return new Body(bytes, gzip && bytes.length >= gzipMinSize ? gzip(bytes) : null, page.nextCursor());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value.")
+                .register(registry);
+        Gauge.builder("cache.size", listings, Cache::estimatedSize)
+                .tags("cache", CACHE_NAME)
+                .description("The number of authors with cached listing bodies.")
+                .register(registry);
+    }
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        /**
+         * CBOR when the client prefers it over JSON by quality; JSON otherwise, including for wildcards.
+         */
+        public static Format of(List<MediaType> accepted) {
+            return quality(accepted, CBOR) > quality(accepted, JSON) ? CBOR : JSON;
+        }
+
+        private static double quality(List<MediaType> accepted, Format format) {
+            double quality = 0;
+            for (MediaType mediaType : accepted) {
+                if (mediaType.includes(format.mediaType)) {
+                    quality = Math.max(quality, mediaType.getQualityValue());
+                }
+            }
+            return quality;
+        }
+    }
+
+    /**
+     * Which listing of an author: the page parameters as sent, so equal requests share one body, and
+     * how it is rendered.
+     */
+    public record Key(String cursor, Integer limit, Format format, boolean columnar) {
+    }
+
+    /**
+     * A rendered listing. {@code gzip} is {@code null} when the body is too small to be worth compressing.
+     */
+    public record Body(byte[] bytes, byte[] gzip, String nextCursor) {
+    }
+
+    private record Listings(long version, ConcurrentMap<Key, Body> bodies) {
+
+        Listings(long version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+    }
+}
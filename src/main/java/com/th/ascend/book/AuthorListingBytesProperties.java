@@ -0,0 +1,21 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "book.listing-bytes")
+public record AuthorListingBytesProperties(
+        @DefaultValue("1000")
+        long maximumAuthors,
+
+        @DefaultValue("8")
+        int maximumListingsPerAuthor,
+
+        @DefaultValue("true")
+        boolean gzip,
+
+        @DefaultValue("1KB")
+        DataSize gzipMinSize
+) {
+}
@@ -0,0 +1,131 @@
+package com.th.ascend.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches author listing pages per {@linkplain AuthorKeys author key}, so a write can drop exactly
+ * that author's pages.
+ * <p>
+ * Each author maps to its own page table. {@link #invalidate(String)} detaches the whole table, so a
+ * read that loaded from the database before the write committed only ever fills a detached table and
+ * can never publish a stale page.
+ */
+@Component
+public class AuthorListingCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "authorListings";
+
+    private final Cache<String, ConcurrentMap<ListingKey, ResponseBookPage>> listings;
+
+    private final int maximumPagesPerAuthor;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public AuthorListingCache(AuthorListingCacheProperties properties) {
+        this.maximumPagesPerAuthor = properties.maximumPagesPerAuthor();
+        this.listings = Caffeine.newBuilder()
+                .maximumSize(properties.maximumAuthors())
+                .expireAfterWrite(properties.timeToLive())
+                .<String, ConcurrentMap<ListingKey, ResponseBookPage>>evictionListener(
+                        (author, pages, cause) -> evictions.increment())
+                .build();
+    }
+
+    public ResponseBookPage get(String author, ListingKey key, Supplier<ResponseBookPage> loader) {
+        ConcurrentMap<ListingKey, ResponseBookPage> pages = listings.get(author, ignored -> new ConcurrentHashMap<>());
+        ResponseBookPage page = pages.get(key);
+        if (page != null) {
+            hits.increment();
+            return page;
+        }
+        misses.increment();
+        page = loader.get();
+        if (pages.size() < maximumPagesPerAuthor) {
+            pages.putIfAbsent(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Bulk form of {@link #get}: the loader is called once, with every author whose page is not cached.
+     */
+    public Map<String, ResponseBookPage> getAll(Collection<String> authors, ListingKey key,
+                                                Function<Set<String>, Map<String, ResponseBookPage>> loader) {
+        Map<String, ResponseBookPage> found = new HashMap<>();
+        Map<String, ConcurrentMap<ListingKey, ResponseBookPage>> missing = new HashMap<>();
+        for (String author : authors) {
+            ConcurrentMap<ListingKey, ResponseBookPage> pages = listings.get(author, ignored -> new ConcurrentHashMap<>());
+            ResponseBookPage page = pages.get(key);
+            if (page != null) {
+                hits.increment();
+                found.put(author, page);
+            } else {
+                misses.increment();
+                missing.put(author, pages);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        Map<String, ResponseBookPage> loaded = loader.apply(missing.keySet());
+        loaded.forEach((author, page) -> {
+            found.put(author, page);
+            ConcurrentMap<ListingKey, ResponseBookPage> pages = missing.get(author);
+            if (pages != null && pages.size() < maximumPagesPerAuthor) {
+                pages.putIfAbsent(key, page);
+            }
+        });
+        return found;
+    }
+
+    public void invalidate(String author) {
+        listings.invalidate(author);
+    }
+
+    public void invalidateAll() {
+        listings.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value.")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", CACHE_NAME)
+                .description("Authors evicted from the cache by size or age.")
+                .register(registry);
+        Gauge.builder("cache.size", listings, Cache::estimatedSize)
+                .tags("cache", CACHE_NAME)
+                .description("The number of authors with cached listing pages.")
+                .register(registry);
+    }
+
+    public record ListingKey(String cursor, int limit) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "book.listing-cache")
+public record AuthorListingCacheProperties(
+        @DefaultValue("10000")
+        long maximumAuthors,
+
+        @DefaultValue("16")
+        int maximumPagesPerAuthor,
+
+        @DefaultValue("10m")
+        Duration timeToLive
+) {
+}
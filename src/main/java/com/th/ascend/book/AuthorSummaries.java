@@ -0,0 +1,252 @@
+package com.th.ascend.book;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Per-author aggregates kept in {@code author_summary} (book count, first and latest published date)
+ * and {@code author_year_summary} (books per year), so author statistics are two primary-key reads
+ * instead of a {@code GROUP BY} over {@code book}.
+ * <p>
+ * Writers call {@link #add(Collection)} inside the transaction that inserts the books, so the figures
+ * commit or roll back with them, and before the book {@code INSERT}s are flushed, which the rebuild's
+ * {@code DELETE} then {@code INSERT ... SELECT} also does: every writer locks {@code author_summary}
+ * before {@code book}. Rows are upserted in key order, so concurrent writers lock them in the same order
+ * and cannot deadlock on each other.
+ * <p>
+ * {@link #rebuild()} recomputes everything from {@code book}, in ranges of author keys holding about
+ * {@code book.author-summary.rebuild-chunk-size} books each, on {@code rebuild-parallelism} threads. Each
+ * range is replaced in one transaction; on MySQL its {@code INSERT ... SELECT} locks the range's books,
+ * so a book written meanwhile is counted either by the range or after it, never twice or not at all.
+ * It runs on startup when the summary is empty but books exist, or always with
+ * {@code book.author-summary.rebuild-on-startup=true}.
+ */
+@Slf4j
+@Component
+public class AuthorSummaries implements ApplicationRunner {
+
+    private static final String UPSERT_SUMMARY = """
+            INSERT INTO author_summary (author_key, author, book_count, first_published_date, latest_published_date)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                book_count = book_count + VALUES(book_count),
+                first_published_date = LEAST(COALESCE(first_published_date, VALUES(first_published_date)),
+                                             COALESCE(VALUES(first_published_date), first_published_date)),
+                latest_published_date = GREATEST(COALESCE(latest_published_date, VALUES(latest_published_date)),
+                                                 COALESCE(VALUES(latest_published_date), latest_published_date))
+            """;
+
+    private static final String UPSERT_YEAR = """
+            INSERT INTO author_year_summary (author_key, published_year, book_count)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE book_count = book_count + VALUES(book_count)
+            """;
+
+    private static final String SELECT_SUMMARY = """
+            SELECT author, book_count, first_published_date, latest_published_date
+            FROM author_summary
+            WHERE author_key = ?
+            """;
+
+    private static final String SELECT_YEARS =
+            "SELECT published_year, book_count FROM author_year_summary WHERE author_key = ? ORDER BY published_year";
+
+    private static final String SELECT_CHUNK_END =
+            "SELECT author_key FROM book WHERE author_key >= ? ORDER BY author_key LIMIT 1 OFFSET ?";
+
+    private static final String SELECT_NEXT_KEY = "SELECT MIN(author_key) FROM book WHERE author_key > ?";
+
+    private static final String DELETE_SUMMARY = "DELETE FROM author_summary WHERE %s";
+
+    private static final String DELETE_YEARS = "DELETE FROM author_year_summary WHERE %s";
+
+    private static final String INSERT_SUMMARY = """
+            INSERT INTO author_summary (author_key, author, book_count, first_published_date, latest_published_date)
+            SELECT author_key, MIN(author), COUNT(*), MIN(published_date), MAX(published_date)
+            FROM book
+            WHERE %s
+            GROUP BY author_key
+            """;
+
+    private static final String INSERT_YEARS = """
+            INSERT INTO author_year_summary (author_key, published_year, book_count)
+            SELECT author_key, YEAR(published_date), COUNT(*)
+            FROM book
+            WHERE %s AND published_date IS NOT NULL
+            GROUP BY author_key, YEAR(published_date)
+            """;
+
+    private static final Comparator<YearKey> YEAR_ORDER =
+            Comparator.comparing(YearKey::authorKey).thenComparingInt(YearKey::year);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AuthorSummaryProperties properties;
+
+    public AuthorSummaries(DataSource dataSource, TransactionTemplate transactionTemplate,
+                           AuthorSummaryProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Counts newly inserted books. Must run in the transaction that inserts them.
+     */
+    public void add(Collection<BookEntity> books) {
+        Map<String, Summary> summaries = new TreeMap<>();
+        Map<YearKey, Long> years = new TreeMap<>(YEAR_ORDER);
+        for (BookEntity book : books) {
+            LocalDateTime publishedDate = book.getPublishedDate();
+            summaries.computeIfAbsent(book.getAuthorKey(), ignored -> new Summary(book.getAuthor())).add(publishedDate);
+            if (publishedDate != null) {
+                years.merge(new YearKey(book.getAuthorKey(), publishedDate.getYear()), 1L, Long::sum);
+            }
+        }
+        List<Object[]> summaryRows = new ArrayList<>(summaries.size());
+        summaries.forEach((authorKey, summary) -> summaryRows.add(new Object[]{
+                authorKey, summary.author, summary.books, summary.first, summary.latest}));
+        List<Object[]> yearRows = new ArrayList<>(years.size());
+        years.forEach((key, count) -> yearRows.add(new Object[]{key.authorKey(), key.year(), count}));
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY, summaryRows);
+        jdbcTemplate.batchUpdate(UPSERT_YEAR, yearRows);
+    }
+
+    public Optional<ResponseAuthorStats> find(String authorKey) {
+        SortedMap<Integer, Long> booksPerYear = new TreeMap<>();
+        List<ResponseAuthorStats> found = jdbcTemplate.query(SELECT_SUMMARY, (rs, rowNum) -> new ResponseAuthorStats(
+                rs.getString(1), rs.getLong(2), rs.getObject(3, LocalDateTime.class),
+                rs.getObject(4, LocalDateTime.class), booksPerYear), authorKey);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        jdbcTemplate.query(SELECT_YEARS, rs -> {
+            booksPerYear.put(rs.getInt(1), rs.getLong(2));
+        }, authorKey);
+        return Optional.of(found.getFirst());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean empty = jdbcTemplate.queryForList("SELECT author_key FROM author_summary LIMIT 1", String.class).isEmpty();
+        if (properties.rebuildOnStartup()
+                || empty && !jdbcTemplate.queryForList("SELECT id FROM book LIMIT 1", Long.class).isEmpty()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes both tables from {@code book} and returns the number of authors summarized.
+     */
+    public long rebuild() {
+        long start = System.nanoTime();
+        List<String> bounds = chunkBounds();
+        long authors = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.rebuildParallelism())) {
+            List<Future<Integer>> chunks = new ArrayList<>(bounds.size());
+            for (int i = 0; i < bounds.size(); i++) {
+                String from = bounds.get(i);
+                String to = i + 1 < bounds.size() ? bounds.get(i + 1) : null;
+                chunks.add(executor.submit(() -> transactionTemplate.execute(status -> rebuildChunk(from, to))));
+            }
+            for (Future<Integer> chunk : chunks) {
+                authors += chunk.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Author summary rebuild failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Author summary rebuild interrupted", e);
+        }
+        log.info("Rebuilt author summary for {} authors in {} chunks in {} ms", authors, bounds.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return authors;
+    }
+
+    /**
+     * Lower bounds of the author key ranges, each holding about {@code rebuildChunkSize} books. An author
+     * never spans two ranges. Read from {@code idx_author_key_published_date} alone.
+     */
+    private List<String> chunkBounds() {
+        List<String> bounds = new ArrayList<>();
+        String lower = "";
+        bounds.add(lower);
+        while (true) {
+            List<String> end = jdbcTemplate.queryForList(SELECT_CHUNK_END, String.class, lower,
+                    properties.rebuildChunkSize());
+            if (end.isEmpty()) {
+                return bounds;
+            }
+            String bound = end.getFirst();
+            if (bound.equals(lower)) {
+                // One author has a whole chunk's worth of books; the range ends with them.
+                bound = jdbcTemplate.queryForObject(SELECT_NEXT_KEY, String.class, lower);
+                if (bound == null) {
+                    return bounds;
+                }
+            }
+            bounds.add(bound);
+            lower = bound;
+        }
+    }
+
+    private int rebuildChunk(String from, String to) {
+        String range = to != null ? "author_key >= ? AND author_key < ?" : "author_key >= ?";
+        Object[] bounds = to != null ? new Object[]{from, to} : new Object[]{from};
+        jdbcTemplate.update(DELETE_SUMMARY.formatted(range), bounds);
+        jdbcTemplate.update(DELETE_YEARS.formatted(range), bounds);
+        int authors = jdbcTemplate.update(INSERT_SUMMARY.formatted(range), bounds);
+        jdbcTemplate.update(INSERT_YEARS.formatted(range), bounds);
+        return authors;
+    }
+
+    private record YearKey(String authorKey, int year) {
+    }
+
+    private static final class Summary {
+
+        private final String author;
+
+        private long books;
+
+        private LocalDateTime first;
+
+        private LocalDateTime latest;
+
+        private Summary(String author) {
+            this.author = author;
+        }
+
+        private void add(LocalDateTime publishedDate) {
+            books++;
+            if (publishedDate != null) {
+                first = first == null || publishedDate.isBefore(first) ? publishedDate : first;
+                latest = latest == null || publishedDate.isAfter(latest) ? publishedDate : latest;
+            }
+        }
+    }
+}
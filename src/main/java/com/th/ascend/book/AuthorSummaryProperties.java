@@ -0,0 +1,17 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "book.author-summary")
+public record AuthorSummaryProperties(
+        @DefaultValue("50000")
+        int rebuildChunkSize,
+
+        @DefaultValue("4")
+        int rebuildParallelism,
+
+        @DefaultValue("false")
+        boolean rebuildOnStartup
+) {
+}
@@ -0,0 +1,114 @@
+package com.th.ascend.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-author version stamps that back {@code ETag} and {@code Last-Modified} on author listings.
+ * <p>
+ * Every change to an author's books {@linkplain #bump(String) bumps} its stamp to a version no stamp had
+ * before. An author without a stamp of its own shares the floor stamp, which starts at startup and is
+ * raised to any stamp evicted from the bounded table. So an author's stamp only ever moves forward, and
+ * a validator handed out for one version never matches a later listing. {@code Last-Modified} is the
+ * second after the change, and is only {@linkplain #lastModified(Stamp) handed out} once that second has
+ * begun. A client revalidating with {@code If-Modified-Since} alone then never holds a date from the
+ * second of a later change, which would wrongly match.
+ */
+@Component
+public class AuthorVersions {
+
+    private static final long MAXIMUM_SIZE = 100_000;
+
+    private final Clock clock;
+
+    private final String epoch;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final AtomicReference<Stamp> floor;
+
+    private final Cache<String, Stamp> stamps;
+
+    public AuthorVersions() {
+        this(Clock.systemUTC());
+    }
+
+    AuthorVersions(Clock clock) {
+        this.clock = clock;
+        // Tells this process's versions apart from a previous one's, which restarted from zero.
+        this.epoch = Long.toString(clock.millis(), Character.MAX_RADIX);
+        this.floor = new AtomicReference<>(new Stamp(0, now()));
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .<String, Stamp>evictionListener((authorKey, stamp, cause) -> raiseFloor(stamp))
+                .build();
+    }
+
+    public Stamp stamp(String authorKey) {
+        Stamp stamp = stamps.getIfPresent(authorKey);
+        return stamp != null ? stamp : floor.get();
+    }
+
+    public void bump(String authorKey) {
+        stamps.asMap().compute(authorKey, (key, previous) -> {
+            Instant last = (previous != null ? previous : floor.get()).lastModified();
+            return new Stamp(versions.incrementAndGet(), latest(last, now().plusSeconds(1)));
+        });
+    }
+
+    /**
+     * Moves every author's stamp forward, for when changes may have been missed. Stamps bumped meanwhile
+     * are newer than the raised floor and are kept.
+     */
+    public void bumpAll() {
+        Instant last = floor.get().lastModified();
+        for (Stamp stamp : stamps.asMap().values()) {
+            last = stamp.lastModified().isAfter(last) ? stamp.lastModified() : last;
+        }
+        Stamp raised = new Stamp(versions.incrementAndGet(), latest(last, now().plusSeconds(1)));
+        raiseFloor(raised);
+        stamps.asMap().values().removeIf(stamp -> stamp.version() < raised.version());
+    }
+
+    /**
+     * A weak entity tag for one representation of an author's listing; {@code variant} tells apart the
+     * endpoints and parameters that render the same author differently.
+     */
+    public String etag(Stamp stamp, int variant) {
+        return "W/\"" + epoch + '-' + stamp.version() + '-' + Integer.toHexString(variant) + '"';
+    }
+
+    /**
+     * The stamp's {@code Last-Modified} in epoch millis, or -1 while its second has not begun, so it is
+     * never later than {@code Date}.
+     */
+    public long lastModified(Stamp stamp) {
+        return stamp.lastModified().isAfter(clock.instant()) ? -1 : stamp.lastModified().toEpochMilli();
+    }
+
+    private void raiseFloor(Stamp evicted) {
+        floor.accumulateAndGet(evicted, (current, candidate) ->
+                candidate.version() > current.version() ? candidate : current);
+    }
+
+    private Instant now() {
+        return clock.instant().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Keeps {@code Last-Modified} from moving back if the clock does.
+     */
+    private static Instant latest(Instant last, Instant now) {
+        return now.isAfter(last) ? now : last;
+    }
+
+    public record Stamp(long version, Instant lastModified) {
+    }
+}
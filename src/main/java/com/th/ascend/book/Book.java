@@ -4,4 +4,10 @@ import java.util.List;
 
 public sealed interface Book permits BookService {
     List<ResponseBook> getBookListByAuthor(RequestBookByAuthor requestBookByAuthor);
+
+    ResponseBookPage getBookPageByAuthor(RequestBookByAuthor requestBookByAuthor);
+
+    List<ResponseAuthorBooks> getBooksByAuthors(RequestBooksByAuthors requestBooksByAuthors);
+
+    ResponseBookPage getBooksPublishedBetween(RequestBooksByDate requestBooksByDate);
 }
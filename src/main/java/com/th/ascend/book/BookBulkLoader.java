@@ -0,0 +1,198 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a JSON array or NDJSON body of {@link RequestBook}s into the {@code book} table.
+ * <p>
+ * Elements are read one at a time, validated with the same constraints as {@code POST /api/v1/books}
+ * and persisted in batches, each flushed as a single JDBC batch. {@code BookEntity} ids come from a
+ * pooled sequence, so Hibernate batches the inserts; on MySQL, {@code rewriteBatchedStatements=true}
+ * turns each batch into multi-row {@code INSERT}s. A failing batch is retried row by row so one bad
+ * row only rejects itself.
+ */
+@Slf4j
+@Service
+public class BookBulkLoader {
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectReader requestBookReader;
+
+    private final Validator validator;
+
+    private final BookMapper bookMapper;
+
+    private final AuthorChanges authorChanges;
+
+    private final AuthorSummaries authorSummaries;
+
+    private final AuthorChangeFeed authorChangeFeed;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final BulkLoadProperties properties;
+
+    public BookBulkLoader(EntityManager entityManager, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                          Validator validator, BookMapper bookMapper, AuthorChanges authorChanges,
+                          AuthorSummaries authorSummaries, AuthorChangeFeed authorChangeFeed,
+                          BookSearchIndex bookSearchIndex, BulkLoadProperties properties) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.requestBookReader = objectMapper.readerFor(RequestBook.class);
+        this.validator = validator;
+        this.bookMapper = bookMapper;
+        this.authorChanges = authorChanges;
+        this.authorSummaries = authorSummaries;
+        this.authorChangeFeed = authorChangeFeed;
+        this.bookSearchIndex = bookSearchIndex;
+        this.properties = properties;
+    }
+
+    public ResponseBulkBook load(InputStream body) throws IOException {
+        Progress progress = new Progress(properties.maximumReportedFailures());
+        List<IndexedBook> batch = new ArrayList<>(properties.batchSize());
+        // A top-level array is unwrapped by the iterator, so the same loop reads JSON arrays and NDJSON.
+        try (MappingIterator<RequestBook> requestBooks = requestBookReader.readValues(body)) {
+            long index = 0;
+            while (true) {
+                RequestBook requestBook;
+                try {
+                    if (!requestBooks.hasNextValue()) {
+                        break;
+                    }
+                    requestBook = requestBooks.nextValue();
+                } catch (JsonParseException e) {
+                    // Malformed JSON leaves no reliable place to resume from.
+                    progress.reject(index, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    progress.received++;
+                    progress.reject(index++, "Invalid book: " + e.getOriginalMessage());
+                    continue;
+                }
+
+                long position = index++;
+                progress.received++;
+                Set<ConstraintViolation<RequestBook>> violations = validator.validate(requestBook);
+                if (!violations.isEmpty()) {
+                    progress.reject(position, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining("; ")));
+                    continue;
+                }
+                batch.add(new IndexedBook(position, bookMapper.toEntity(requestBook)));
+                if (batch.size() == properties.batchSize()) {
+                    write(batch, progress);
+                    batch.clear();
+                }
+            }
+        }
+        write(batch, progress);
+        return new ResponseBulkBook(progress.received, progress.created, progress.failed, progress.failures);
+    }
+
+    private void write(List<IndexedBook> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batch.size());
+                List<BookEntity> entities = new ArrayList<>(batch.size());
+                for (IndexedBook book : batch) {
+                    entityManager.persist(book.entity());
+                    entities.add(book.entity());
+                }
+                // Summaries first, as in every write path, so writers lock author_summary before book.
+                authorSummaries.add(entities);
+                authorChangeFeed.publish(entities);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.created += batch.size();
+            for (IndexedBook book : batch) {
+                bookSearchIndex.add(bookMapper.toResponse(book.entity()));
+            }
+        } catch (DataAccessException | PersistenceException e) {
+            log.warn("Bulk batch of {} books failed, retrying row by row", batch.size(), e);
+            for (IndexedBook book : batch) {
+                // Ids assigned by the rolled back attempt are discarded; the entity is new again.
+                book.entity().setId(0L);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.persist(book.entity());
+                        authorSummaries.add(List.of(book.entity()));
+                        authorChangeFeed.publish(List.of(book.entity()));
+                    });
+                    progress.created++;
+                    bookSearchIndex.add(bookMapper.toResponse(book.entity()));
+                } catch (DataAccessException | PersistenceException rowFailure) {
+                    progress.reject(book.index(),
+                            "Could not store book: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        evictAuthors(batch);
+    }
+
+    private void evictAuthors(List<IndexedBook> batch) {
+        Set<String> authors = new HashSet<>();
+        for (IndexedBook book : batch) {
+            authors.add(book.entity().getAuthorKey());
+        }
+        authorChanges.booksChanged(authors);
+    }
+
+    private record IndexedBook(long index, BookEntity entity) {
+    }
+
+    private static final class Progress {
+
+        private final int maximumReportedFailures;
+
+        private final List<ResponseBulkBook.Failure> failures = new ArrayList<>();
+
+        private long received;
+
+        private long created;
+
+        private long failed;
+
+        private Progress(int maximumReportedFailures) {
+            this.maximumReportedFailures = maximumReportedFailures;
+        }
+
+        private void reject(long index, String message) {
+            failed++;
+            if (failures.size() < maximumReportedFailures) {
+                failures.add(new ResponseBulkBook.Failure(index, message));
+            }
+        }
+    }
+}
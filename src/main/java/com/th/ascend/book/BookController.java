@@ -1,29 +1,272 @@
 package com.th.ascend.book;
 
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/books")
-@RequiredArgsConstructor
 public class BookController {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final BookService bookService;
 
-    @GetMapping
-    public List<ResponseBook> getBookListByAuthor(@RequestBody RequestBookByAuthor requestBookByAuthor) {
-        return bookService.getBookListByAuthor(requestBookByAuthor);
+    private final BookBulkLoader bookBulkLoader;
+
+    private final BookExporter bookExporter;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final AuthorVersions authorVersions;
+
+    private final AuthorListingBytes authorListingBytes;
+
+    private final AuthorSummaries authorSummaries;
+
+    private final ObjectProvider<BookWriteBehindQueue> bookWriteBehindQueue;
+
+    private final CacheControl authorListingCacheControl;
+
+    public BookController(BookService bookService, BookBulkLoader bookBulkLoader, BookExporter bookExporter,
+                          BookSearchIndex bookSearchIndex, AuthorVersions authorVersions,
+                          AuthorListingBytes authorListingBytes, AuthorSummaries authorSummaries,
+                          ObjectProvider<BookWriteBehindQueue> bookWriteBehindQueue,
+                          HttpCacheProperties httpCacheProperties) {
+        this.bookService = bookService;
+        this.bookBulkLoader = bookBulkLoader;
+        this.bookExporter = bookExporter;
+        this.bookSearchIndex = bookSearchIndex;
+        this.authorVersions = authorVersions;
+        this.authorListingBytes = authorListingBytes;
+        this.authorSummaries = authorSummaries;
+        this.bookWriteBehindQueue = bookWriteBehindQueue;
+        this.authorListingCacheControl = CacheControl.maxAge(httpCacheProperties.maxAge())
+                .staleWhileRevalidate(httpCacheProperties.staleWhileRevalidate())
+                .cachePublic();
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<byte[]> getBookListByAuthor(@RequestBody RequestBookByAuthor requestBookByAuthor,
+                                                      @RequestHeader HttpHeaders headers, WebRequest webRequest) {
+        String authorKey = AuthorKeys.normalize(requestBookByAuthor.author());
+        AuthorListingBytes.Format format = AuthorListingBytes.Format.of(headers.getAccept());
+        AuthorVersions.Stamp stamp = stamp(authorKey);
+        if (notModified(webRequest, stamp, Objects.hash("list", authorKey, format.name()))) {
+            return null;
+        }
+        AuthorListingBytes.Key key = new AuthorListingBytes.Key(null, null, format, false);
+        AuthorListingBytes.Body body = authorListingBytes.get(authorKey, stamp, key,
+                () -> new ResponseBookPage(bookService.getBookListByAuthor(requestBookByAuthor), null, null));
+        return listing(ResponseEntity.ok(), key, body, headers);
+    }
+
+    /**
+     * The cacheable form of the author listing: the query string is the whole request, so shared caches
+     * can key on the URL. The next page, if any, is linked from a {@code Link: <...>; rel="next"} header.
+     * {@code shape=columns} returns a {@link ResponseBookColumns} instead of an array of books.
+     */
+    @GetMapping(params = "author", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<byte[]> getBookListByAuthorParam(@RequestParam String author,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "rows") String shape,
+                                                           @RequestHeader HttpHeaders headers, WebRequest webRequest) {
+        String authorKey = AuthorKeys.normalize(author);
+        AuthorListingBytes.Key key = new AuthorListingBytes.Key(cursor, limit,
+                AuthorListingBytes.Format.of(headers.getAccept()), columnar(shape));
+        AuthorVersions.Stamp stamp = stamp(authorKey);
+        if (notModified(webRequest, stamp, Objects.hash("query", authorKey, cursor, limit, key.format().name(), key.columnar()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(authorListingCacheControl).build();
+        }
+        AuthorListingBytes.Body body = authorListingBytes.get(authorKey, stamp, key,
+                () -> bookService.getBookPageByAuthor(new RequestBookByAuthor(author, cursor, limit)));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(authorListingCacheControl);
+        if (body.nextCursor() != null) {
+            // Template variables are encoded strictly, so '+' in a cursor survives the round trip.
+            String next = UriComponentsBuilder.fromPath("/api/v1/books")
+                    .queryParam("author", "{author}")
+                    .queryParamIfPresent("limit", Optional.ofNullable(limit))
+                    .queryParam("cursor", "{cursor}")
+                    .queryParamIfPresent("shape", Optional.of(shape).filter(value -> key.columnar()))
+                    .encode()
+                    .buildAndExpand(author, body.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return listing(response, key, body, headers);
+    }
+
+    @GetMapping("/page")
+    public ResponseBookPage getBookPageByAuthor(@RequestBody RequestBookByAuthor requestBookByAuthor,
+                                                WebRequest webRequest) {
+        String authorKey = AuthorKeys.normalize(requestBookByAuthor.author());
+        int variant = Objects.hash("page", authorKey, requestBookByAuthor.cursor(), requestBookByAuthor.limit(),
+                requestBookByAuthor.includeTotal());
+        if (notModified(webRequest, stamp(authorKey), variant)) {
+            return null;
+        }
+        return bookService.getBookPageByAuthor(requestBookByAuthor);
+    }
+
+    @GetMapping("/authors")
+    public List<ResponseAuthorBooks> getBooksByAuthors(@RequestBody @Valid RequestBooksByAuthors requestBooksByAuthors) {
+        return bookService.getBooksByAuthors(requestBooksByAuthors);
+    }
+
+    /**
+     * New releases: books published from the start of {@code from} to the end of {@code to}, newest first,
+     * optionally by one author, page by page like {@code /page}.
+     */
+    @GetMapping("/releases")
+    public ResponseBookPage getBooksPublishedBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return bookService.getBooksPublishedBetween(new RequestBooksByDate(from, to, author, cursor, limit));
+    }
+
+    /**
+     * Author figures for dashboards, read from the maintained {@link AuthorSummaries} rather than by
+     * scanning the author's books.
+     */
+    @GetMapping("/stats")
+    public ResponseAuthorStats getAuthorStats(@RequestParam String author) {
+        return authorSummaries.find(AuthorKeys.normalize(author))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No books by " + author));
+    }
+
+    @GetMapping("/search")
+    public List<ResponseBook> searchBooks(@RequestParam("q") String query,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        if (query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        return bookSearchIndex.search(query, Math.clamp(limit, 1, MAX_SEARCH_RESULTS));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(required = false) String author,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        BookExporter.Format exportFormat = BookExporter.Format.of(format);
+        StreamingResponseBody body = outputStream -> bookExporter.export(author, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .body(body);
     }
 
     @PostMapping
     public ResponseBook createBook(@RequestBody @Valid RequestBook requestBook) {
         return bookService.createBook(requestBook);
     }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseBulkBook createBooks(InputStream body) throws IOException {
+        return bookBulkLoader.load(body);
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<ResponseBookTicket> createBookAsync(@RequestBody @Valid RequestBook requestBook) {
+        ResponseBookTicket ticket = writeBehindQueue().submit(requestBook);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/books/async/" + ticket.ticket()))
+                .body(ticket);
+    }
+
+    @GetMapping("/async/{ticket}")
+    public ResponseBookTicket getBookTicket(@PathVariable UUID ticket) {
+        return writeBehindQueue().ticket(ticket);
+    }
+
+    private AuthorVersions.Stamp stamp(String authorKey) {
+        return authorKey != null ? authorVersions.stamp(authorKey) : null;
+    }
+
+    /**
+     * Answers {@code If-None-Match}/{@code If-Modified-Since} from the author's version stamp alone and
+     * sets {@code ETag}/{@code Last-Modified} otherwise; right after a change only the {@code ETag} is
+     * used, see {@link AuthorVersions}. The stamp is read before the listing, so a concurrent write can
+     * only make the listing newer than its validators, never older.
+     */
+    private boolean notModified(WebRequest webRequest, AuthorVersions.Stamp stamp, int variant) {
+        if (stamp == null) {
+            return false;
+        }
+        return webRequest.checkNotModified(authorVersions.etag(stamp, variant), authorVersions.lastModified(stamp));
+    }
+
+    /**
+     * Writes a pre-rendered listing, gzip-encoded when the client accepts it and a gzip body was kept.
+     */
+    private static ResponseEntity<byte[]> listing(ResponseEntity.BodyBuilder response, AuthorListingBytes.Key key,
+                                                  AuthorListingBytes.Body body, HttpHeaders headers) {
+        response.contentType(key.format().mediaType()).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzip() != null && acceptsGzip(headers.getFirst(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.bytes());
+    }
+
+    private static boolean columnar(String shape) {
+        return switch (shape) {
+            case "rows" -> false;
+            case "columns" -> true;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported shape: " + shape);
+        };
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";", 2);
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    private BookWriteBehindQueue writeBehindQueue() {
+        BookWriteBehindQueue queue = bookWriteBehindQueue.getIfAvailable();
+        if (queue == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Asynchronous ingestion is disabled");
+        }
+        return queue;
+    }
 }
@@ -0,0 +1,42 @@
+package com.th.ascend.book;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last book returned on a page, ordered by
+ * {@code (published_date DESC, id DESC)}. Clients only ever see the opaque encoded form.
+ * <p>
+ * Legacy rows without a {@code published_date} sort after every dated row, as NULL is the lowest value
+ * on MySQL and H2. Their position has a null date, encoded as an empty date field.
+ */
+public record BookCursor(LocalDateTime publishedDate, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = (publishedDate != null ? publishedDate.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing cursor separator");
+            }
+            String publishedDate = raw.substring(0, separator);
+            return new BookCursor(
+                    publishedDate.isEmpty() ? null : LocalDateTime.parse(publishedDate),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+}
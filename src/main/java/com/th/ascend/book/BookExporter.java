@@ -0,0 +1,162 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Writes an author's books, or the whole {@code book} table, straight from a forward-only JDBC cursor
+ * to an output stream. Rows never reach the persistence context or a {@code List}, so memory stays
+ * constant however large the export. On MySQL the JDBC URL needs {@code useCursorFetch=true} for the
+ * fetch size to be honoured instead of the driver buffering the whole result.
+ */
+@Component
+public class BookExporter {
+
+    private static final String SELECT_BY_AUTHOR = """
+            SELECT id, title, author, published_date FROM book
+            WHERE author_key = ?
+            ORDER BY published_date DESC, id DESC
+            """;
+
+    private static final String SELECT_ALL = "SELECT id, title, author, published_date FROM book ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectWriter ndjsonWriter;
+
+    public BookExporter(DataSource dataSource, ObjectMapper objectMapper, ExportProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.ndjsonWriter = objectMapper.writerFor(ResponseBook.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(String author, Format format, OutputStream outputStream) throws IOException {
+        try {
+            switch (format) {
+                case NDJSON -> exportNdjson(author, outputStream);
+                case CSV -> exportCsv(author, outputStream);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Ends every record, the last one included, with a newline. The generator leaves the output stream
+     * open, so the servlet container closes it after the last byte.
+     */
+    private void exportNdjson(String author, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = ndjsonWriter.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            query(author, rs -> {
+                try {
+                    ndjsonWriter.writeValue(generator, new ResponseBook(
+                            rs.getLong(1), rs.getString(2), rs.getString(3), publishedDate(rs)));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void exportCsv(String author, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("id,title,author,publishedDate\r\n");
+        query(author, rs -> {
+            try {
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(2));
+                writer.write(',');
+                writeCsvField(writer, rs.getString(3));
+                writer.write(',');
+                LocalDateTime publishedDate = publishedDate(rs);
+                if (publishedDate != null) {
+                    writer.write(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(publishedDate));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void query(String author, RowCallbackHandler rowCallbackHandler) {
+        if (author == null) {
+            jdbcTemplate.query(SELECT_ALL, rowCallbackHandler);
+        } else {
+            jdbcTemplate.query(SELECT_BY_AUTHOR, rowCallbackHandler, AuthorKeys.normalize(author));
+        }
+    }
+
+    /**
+     * Null for legacy rows stored before {@code published_date} was required.
+     */
+    private static LocalDateTime publishedDate(ResultSet rs) throws SQLException {
+        return rs.getObject(4, LocalDateTime.class);
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + value, e);
+            }
+        }
+    }
+}
@@ -5,18 +5,25 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
-import org.springframework.data.domain.Page;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = MappingConstants.ComponentModel.SPRING)
 public interface BookMapper {
-    @Mapping(target = "publishedDate", dateFormat = "yyyy-MM-dd HH:mm:ss")
+    @Mapping(target = "authorKey", source = "author", qualifiedByName = "authorKey")
     BookEntity toEntity(RequestBook requestBook);
 
-    List<ResponseBook> toResponseList(Page<BookEntity> bookEntity);
-
     ResponseBook toResponse(BookEntity bookEntity);
+
+    @Named("authorKey")
+    default String toAuthorKey(String author) {
+        return AuthorKeys.normalize(author);
+    }
+
+    default LocalDateTime toPublishedDate(String publishedDate) {
+        return PublishedDates.parse(publishedDate);
+    }
 }
\ No newline at end of file
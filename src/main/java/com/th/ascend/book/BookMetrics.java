@@ -0,0 +1,94 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency timers for the book hot paths. Every timer publishes a percentile histogram so tail
+ * latency can be aggregated across instances.
+ */
+@Component
+public class BookMetrics {
+
+    private final Timer findFirstPage;
+
+    private final Timer findNextPage;
+
+    private final Timer findByAuthors;
+
+    private final Timer findByDateRange;
+
+    private final Timer mapToEntity;
+
+    private final Timer mapToResponse;
+
+    private final Timer createBook;
+
+    private final Timer search;
+
+    public BookMetrics(MeterRegistry meterRegistry) {
+        this.findFirstPage = repositoryTimer(meterRegistry, "first");
+        this.findNextPage = repositoryTimer(meterRegistry, "seek");
+        this.findByAuthors = repositoryTimer(meterRegistry, "authors");
+        this.findByDateRange = repositoryTimer(meterRegistry, "range");
+        this.mapToEntity = mapperTimer(meterRegistry, "toEntity");
+        this.mapToResponse = mapperTimer(meterRegistry, "toResponse");
+        this.createBook = Timer.builder("book.service.create")
+                .description("BookService.createBook, including mapping and the insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.search = Timer.builder("book.search")
+                .description("Title and author prefix searches against the in-memory index")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Timer findFirstPage() {
+        return findFirstPage;
+    }
+
+    public Timer findNextPage() {
+        return findNextPage;
+    }
+
+    public Timer findByAuthors() {
+        return findByAuthors;
+    }
+
+    public Timer findByDateRange() {
+        return findByDateRange;
+    }
+
+    public Timer mapToEntity() {
+        return mapToEntity;
+    }
+
+    public Timer mapToResponse() {
+        return mapToResponse;
+    }
+
+    public Timer createBook() {
+        return createBook;
+    }
+
+    public Timer search() {
+        return search;
+    }
+
+    private static Timer repositoryTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("book.repository.find")
+                .description("BookRepository listing queries")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer mapperTimer(MeterRegistry meterRegistry, String method) {
+        return Timer.builder("book.mapper.map")
+                .description("BookMapper conversions")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,11 +1,109 @@
 package com.th.ascend.book;
 
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface BookRepository extends JpaRepository<BookEntity, Long> {
 
-    Page<BookEntity> findByAuthor(String author, Pageable pageable);
-}
\ No newline at end of file
+    /**
+     * Returns a {@link Slice} rather than a {@code Page} so no {@code COUNT(*)} query is issued;
+     * totals, when asked for, come from {@link AuthorBookCounter}. Rows are selected straight into
+     * {@link ResponseBook}, so nothing is hydrated into or dirty-checked by the persistence context.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.th.ascend.book.ResponseBook(b.id, b.title, b.author, b.publishedDate)
+            from BookEntity b
+            where b.authorKey = :authorKey
+            """)
+    Slice<ResponseBook> findByAuthorKey(String authorKey, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    long countByAuthorKey(String authorKey);
+
+    /**
+     * Seeks past the given keyset position on {@code idx_author_key_published_date}; InnoDB secondary
+     * indexes carry the primary key, so the {@code id} tie-break is resolved from the same index range.
+     * Undated legacy rows come after every dated one.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.th.ascend.book.ResponseBook(b.id, b.title, b.author, b.publishedDate)
+            from BookEntity b
+            where b.authorKey = :authorKey
+              and (b.publishedDate < :publishedDate or (b.publishedDate = :publishedDate and b.id < :id)
+                   or b.publishedDate is null)
+            order by b.publishedDate desc, b.id desc
+            """)
+    List<ResponseBook> findByAuthorKeyBefore(String authorKey, LocalDateTime publishedDate, long id, Limit limit);
+
+    /**
+     * {@link #findByAuthorKeyBefore} from a position among the undated legacy rows.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.th.ascend.book.ResponseBook(b.id, b.title, b.author, b.publishedDate)
+            from BookEntity b
+            where b.authorKey = :authorKey
+              and b.publishedDate is null and b.id < :id
+            order by b.id desc
+            """)
+    List<ResponseBook> findUndatedByAuthorKeyBefore(String authorKey, long id, Limit limit);
+
+    /**
+     * Books published in {@code [from, to)}, newest first, seeking past the given keyset position; the first
+     * page seeks from {@code (to, Long.MIN_VALUE)}. Reads a range of {@code idx_published_date}. The explicit
+     * bounds on {@code published_date} let MySQL prune a RANGE-partitioned {@code book} to the partitions
+     * they overlap.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.th.ascend.book.ResponseBook(b.id, b.title, b.author, b.publishedDate)
+            from BookEntity b
+            where b.publishedDate >= :from and b.publishedDate < :to
+              and (b.publishedDate < :publishedDate or (b.publishedDate = :publishedDate and b.id < :id))
+            order by b.publishedDate desc, b.id desc
+            """)
+    List<ResponseBook> findPublishedBetween(LocalDateTime from, LocalDateTime to, LocalDateTime publishedDate, long id,
+                                            Limit limit);
+
+    /**
+     * {@link #findPublishedBetween} for one author, read from {@code idx_author_key_published_date}.
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.th.ascend.book.ResponseBook(b.id, b.title, b.author, b.publishedDate)
+            from BookEntity b
+            where b.authorKey = :authorKey
+              and b.publishedDate >= :from and b.publishedDate < :to
+              and (b.publishedDate < :publishedDate or (b.publishedDate = :publishedDate and b.id < :id))
+            order by b.publishedDate desc, b.id desc
+            """)
+    List<ResponseBook> findByAuthorKeyPublishedBetween(String authorKey, LocalDateTime from, LocalDateTime to,
+                                                       LocalDateTime publishedDate, long id, Limit limit);
+
+    /**
+     * The newest {@code perAuthor} books of each author, in one statement. Each author's rows are an
+     * {@code idx_author_key_published_date} range; rows come back grouped by author key, newest first.
+     */
+    @Transactional(readOnly = true)
+    @Query(nativeQuery = true, value = """
+            SELECT author_key AS authorKey, id, title, author, published_date AS publishedDate
+            FROM (SELECT author_key, id, title, author, published_date,
+                         ROW_NUMBER() OVER (PARTITION BY author_key ORDER BY published_date DESC, id DESC) AS rn
+                  FROM book
+                  WHERE author_key IN (:authorKeys)) ranked
+            WHERE rn <= :perAuthor
+            ORDER BY author_key, published_date DESC, id DESC
+            """)
+    List<AuthorBookRow> findNewestByAuthorKeys(Collection<String> authorKeys, int perAuthor);
+}
@@ -0,0 +1,421 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process inverted index over book titles and authors, for search-as-you-type.
+ * <p>
+ * It is built from the {@code book} table on a background thread once the application is ready, and
+ * every stored book is then {@linkplain #add(ResponseBook) added} as it is created. Until the first build
+ * completes, searches only see books added since startup and the {@code bookSearchIndex} health
+ * indicator, part of the readiness group, reports {@code OUT_OF_SERVICE}. Books stored by other instances are
+ * {@linkplain #load(long, long) loaded} by id range; a book whose id is already indexed is not added
+ * again. Books are numbered in the order they are
+ * added. Each term maps to a growable {@code int[]} of {@code docNumber << 1 | field}, so postings cost
+ * four bytes each. Writes are serialized; searches read without locking, because a posting list publishes
+ * its size only after the entry is written.
+ * <p>
+ * Every query token must prefix-match a title or author word. Each match is weighted: title over author,
+ * and exact words over prefixes. Ties favour the most recently added book.
+ */
+@Slf4j
+@Component
+public class BookSearchIndex implements MeterBinder, HealthIndicator {
+
+    private static final String SELECT_ALL = "SELECT id, title, author, published_date FROM book ORDER BY id";
+
+    private static final String SELECT_RANGE =
+            "SELECT id, title, author, published_date FROM book WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    /**
+     * Caps how many dictionary terms a single query token may expand to, so one-letter prefixes stay cheap.
+     */
+    private static final int MAXIMUM_EXPANSIONS = 64;
+
+    private static final int TITLE = 0;
+
+    private static final int AUTHOR = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BookMetrics bookMetrics;
+
+    private volatile Segment segment = new Segment();
+
+    // Books added while a rebuild reads the table, replayed into the new segment before it is swapped in.
+    private List<ResponseBook> addedDuringRebuild;
+
+    // Serializes rebuilds, which would otherwise share addedDuringRebuild.
+    private final Object rebuildLock = new Object();
+
+    private volatile boolean ready;
+
+    public BookSearchIndex(DataSource dataSource, ExportProperties exportProperties, BookMetrics bookMetrics) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(exportProperties.fetchSize());
+        this.bookMetrics = bookMetrics;
+    }
+
+    /**
+     * Builds the index off the main thread, so a large catalogue does not hold up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread.ofPlatform().name("book-search-index").daemon().start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Could not build the search index", e);
+            }
+        });
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            rebuildSegment();
+        }
+        ready = true;
+    }
+
+    private void rebuildSegment() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        Segment fresh = new Segment();
+        try {
+            jdbcTemplate.query(SELECT_ALL, rs -> {
+                fresh.add(book(rs));
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (ResponseBook book : addedDuringRebuild) {
+                if (!fresh.contains(book.id())) {
+                    fresh.add(book);
+                }
+            }
+            addedDuringRebuild = null;
+            segment = fresh;
+        }
+        log.info("Indexed {} books ({} terms) for search in {} ms", fresh.documentCount, fresh.termCount.get(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public synchronized void add(ResponseBook book) {
+        if (segment.contains(book.id())) {
+            return;
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(book);
+        }
+        segment.add(book);
+    }
+
+    /**
+     * Adds the stored books with ids from {@code firstId} to {@code lastId} that are not indexed yet.
+     */
+    public void load(long firstId, long lastId) {
+        jdbcTemplate.query(SELECT_RANGE, rs -> {
+            add(book(rs));
+        }, firstId, lastId);
+    }
+
+    /**
+     * A legacy row without a {@code published_date} is indexed without one.
+     */
+    private static ResponseBook book(ResultSet rs) throws SQLException {
+        return new ResponseBook(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4, LocalDateTime.class));
+    }
+
+    public List<ResponseBook> search(String query, int limit) {
+        return bookMetrics.search().record(() -> segment.search(tokens(query), limit));
+    }
+
+    /**
+     * Runs of letters and digits, folded like {@link AuthorKeys author keys} so search is case- and
+     * accent-insensitive. Other combining marks stay inside the run, so Thai words keep their vowel
+     * and tone marks.
+     */
+    static List<String> tokens(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        text = AuthorKeys.normalize(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); ) {
+            int codePoint = i < text.length() ? text.codePointAt(i) : ' ';
+            boolean wordPart = Character.isLetterOrDigit(codePoint)
+                    || Character.getType(codePoint) == Character.NON_SPACING_MARK
+                    || Character.getType(codePoint) == Character.COMBINING_SPACING_MARK;
+            if (wordPart && start < 0) {
+                start = i;
+            } else if (!wordPart && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return tokens;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("book.search.documents", this, index -> index.segment.documentCount)
+                .description("Books in the search index")
+                .register(registry);
+        Gauge.builder("book.search.terms", this, index -> index.segment.termCount.get())
+                .description("Distinct words in the search index")
+                .register(registry);
+    }
+
+    /**
+     * Whether the index has been built from the {@code book} table.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = ready ? Health.up() : Health.outOfService();
+        return health.withDetail("documents", segment.documentCount).build();
+    }
+
+    private static final class Segment {
+
+        private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+
+        // Kept alongside terms, whose size() walks the whole map.
+        private final AtomicInteger termCount = new AtomicInteger();
+
+        private volatile ResponseBook[] documents = new ResponseBook[1024];
+
+        private volatile int documentCount;
+
+        // Indexed book ids, which come densely from book_seq; written under the index's lock or before publication.
+        private final BitSet ids = new BitSet();
+
+        private void add(ResponseBook book) {
+            int docNumber = documentCount;
+            if (docNumber == documents.length) {
+                documents = Arrays.copyOf(documents, docNumber * 2);
+            }
+            documents[docNumber] = book;
+            if (tracked(book.id())) {
+                ids.set((int) book.id());
+            }
+            index(tokens(book.title()), docNumber << 1 | TITLE);
+            index(tokens(book.author()), docNumber << 1 | AUTHOR);
+            documentCount = docNumber + 1;
+        }
+
+        private void index(List<String> words, int posting) {
+            for (String word : words) {
+                // Writes are serialized, so a term missing here is created exactly once.
+                Postings postings = terms.get(word);
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(word, postings);
+                    termCount.incrementAndGet();
+                }
+                postings.add(posting);
+            }
+        }
+
+        private boolean contains(long id) {
+            return tracked(id) && ids.get((int) id);
+        }
+
+        /**
+         * Ids past the int range are not tracked, so such books are never recognized as duplicates.
+         */
+        private static boolean tracked(long id) {
+            return id >= 0 && id < Integer.MAX_VALUE;
+        }
+
+        private List<ResponseBook> search(List<String> queryTokens, int limit) {
+            if (queryTokens.isEmpty()) {
+                return List.of();
+            }
+            Matches matches = null;
+            for (String token : queryTokens) {
+                Matches tokenMatches = matches(token);
+                matches = matches == null ? tokenMatches : matches.intersect(tokenMatches);
+                if (matches.size == 0) {
+                    return List.of();
+                }
+            }
+            // Read after the postings: every document they refer to was stored before they were published.
+            return matches.top(limit, documents);
+        }
+
+        private Matches matches(String token) {
+            NavigableMap<String, Postings> expansions = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+            List<Matches> perTerm = new ArrayList<>();
+            for (Map.Entry<String, Postings> term : expansions.entrySet()) {
+                if (perTerm.size() == MAXIMUM_EXPANSIONS) {
+                    break;
+                }
+                perTerm.add(Matches.of(term.getValue(), term.getKey().length() == token.length()));
+            }
+            if (perTerm.isEmpty()) {
+                return new Matches(0);
+            }
+            // Pairwise rounds keep merging n postings from k terms at O(n log k).
+            while (perTerm.size() > 1) {
+                List<Matches> merged = new ArrayList<>((perTerm.size() + 1) / 2);
+                for (int i = 0; i < perTerm.size(); i += 2) {
+                    merged.add(i + 1 < perTerm.size() ? perTerm.get(i).union(perTerm.get(i + 1)) : perTerm.get(i));
+                }
+                perTerm = merged;
+            }
+            return perTerm.getFirst();
+        }
+    }
+
+    private static final class Postings {
+
+        private volatile int[] entries = new int[4];
+
+        private volatile int size;
+
+        private void add(int posting) {
+            int[] current = entries;
+            if (size > 0 && current[size - 1] == posting) {
+                // A word repeated within the same field.
+                return;
+            }
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                entries = current;
+            }
+            current[size] = posting;
+            size = size + 1;
+        }
+    }
+
+    /**
+     * Matching document numbers in ascending order, with their accumulated scores.
+     */
+    private static final class Matches {
+
+        private final int[] docNumbers;
+
+        private final int[] scores;
+
+        private int size;
+
+        private Matches(int capacity) {
+            this.docNumbers = new int[capacity];
+            this.scores = new int[capacity];
+        }
+
+        /**
+         * Postings are already in document order, so this is one pass that keeps each document's best field.
+         */
+        private static Matches of(Postings postings, boolean exact) {
+            int count = postings.size;
+            int[] entries = postings.entries;
+            Matches matches = new Matches(count);
+            for (int i = 0; i < count; i++) {
+                int posting = entries[i];
+                int docNumber = posting >>> 1;
+                int weight = ((posting & 1) == TITLE ? 2 : 1) * (exact ? 2 : 1);
+                if (matches.size > 0 && matches.docNumbers[matches.size - 1] == docNumber) {
+                    matches.scores[matches.size - 1] = Math.max(matches.scores[matches.size - 1], weight);
+                } else {
+                    matches.docNumbers[matches.size] = docNumber;
+                    matches.scores[matches.size++] = weight;
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * Documents matching either term of the same query token, keeping the better score.
+         */
+        private Matches union(Matches other) {
+            Matches either = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && docNumbers[i] < other.docNumbers[j])) {
+                    either.docNumbers[either.size] = docNumbers[i];
+                    either.scores[either.size++] = scores[i++];
+                } else if (i == size || docNumbers[i] > other.docNumbers[j]) {
+                    either.docNumbers[either.size] = other.docNumbers[j];
+                    either.scores[either.size++] = other.scores[j++];
+                } else {
+                    either.docNumbers[either.size] = docNumbers[i];
+                    either.scores[either.size++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return either;
+        }
+
+        /**
+         * Documents matching every query token so far, summing their scores.
+         */
+        private Matches intersect(Matches other) {
+            Matches both = new Matches(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docNumbers[i] < other.docNumbers[j]) {
+                    i++;
+                } else if (docNumbers[i] > other.docNumbers[j]) {
+                    j++;
+                } else {
+                    both.docNumbers[both.size] = docNumbers[i];
+                    both.scores[both.size++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return both;
+        }
+
+        private List<ResponseBook> top(int limit, ResponseBook[] documents) {
+            int bestScore = 0;
+            for (int i = 0; i < size; i++) {
+                bestScore = Math.max(bestScore, scores[i]);
+            }
+            // Scores are small integers, so walking them downwards, newest document first, needs no sort.
+            List<ResponseBook> books = new ArrayList<>(Math.min(limit, size));
+            for (int score = bestScore; score > 0 && books.size() < limit; score--) {
+                for (int i = size - 1; i >= 0 && books.size() < limit; i--) {
+                    if (scores[i] == score) {
+                        books.add(documents[docNumbers[i]]);
+                    }
+                }
+            }
+            return books;
+        }
+    }
+}
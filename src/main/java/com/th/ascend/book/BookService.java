@@ -1,34 +1,200 @@
 package com.th.ascend.book;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public final class BookService implements Book {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by("publishedDate").descending().and(Sort.by("id").descending());
+
     private final BookRepository bookRepository;
 
     private final BookMapper bookMapper;
 
+    private final AuthorBookCounter authorBookCounter;
+
+    private final AuthorListingCache authorListingCache;
+
+    private final BookMetrics bookMetrics;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final AuthorChanges authorChanges;
+
+    private final AuthorSummaries authorSummaries;
+
+    private final AuthorChangeFeed authorChangeFeed;
+
+    private final RecentAuthorChanges recentAuthorChanges;
+
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public List<ResponseBook> getBookListByAuthor(RequestBookByAuthor requestBookByAuthor) {
-        int defaultValueSize = 10;
-        int defaultValuePage = 0;
-        Pageable pageable = PageRequest.of(defaultValuePage, defaultValueSize, Sort.by("publishedDate").descending());
-        Page<BookEntity> bookEntityPage = bookRepository.findByAuthor(requestBookByAuthor.author(), pageable);
-        return bookMapper.toResponseList(bookEntityPage);
+        // The legacy listing is the first keyset page, so both endpoints share one cache entry.
+        return cachedPage(AuthorKeys.normalize(requestBookByAuthor.author()), null, DEFAULT_PAGE_SIZE).books();
+    }
+
+    @Override
+    public List<ResponseAuthorBooks> getBooksByAuthors(RequestBooksByAuthors requestBooksByAuthors) {
+        int pageSize = pageSize(requestBooksByAuthors.limit());
+        Map<String, String> authorKeys = new LinkedHashMap<>();
+        for (String author : requestBooksByAuthors.authors()) {
+            authorKeys.put(author, AuthorKeys.normalize(author));
+        }
+        // Same entries as each author's first page, so a batch warms the single-author listings and vice versa.
+        Map<String, ResponseBookPage> pages = authorListingCache.getAll(new LinkedHashSet<>(authorKeys.values()),
+                new AuthorListingCache.ListingKey(null, pageSize),
+                missing -> recentAuthorChanges.load(missing, () -> loadFirstPages(missing, pageSize)));
+
+        List<ResponseAuthorBooks> authorBooks = new ArrayList<>(authorKeys.size());
+        authorKeys.forEach((author, authorKey) -> {
+            ResponseBookPage page = pages.get(authorKey);
+            authorBooks.add(new ResponseAuthorBooks(author, page.books(), page.nextCursor()));
+        });
+        return authorBooks;
+    }
+
+    @Override
+    public ResponseBookPage getBookPageByAuthor(RequestBookByAuthor requestBookByAuthor) {
+        String authorKey = AuthorKeys.normalize(requestBookByAuthor.author());
+        ResponseBookPage page = cachedPage(authorKey, requestBookByAuthor.cursor(), pageSize(requestBookByAuthor.limit()));
+        if (!requestBookByAuthor.includeTotal()) {
+            return page;
+        }
+        return new ResponseBookPage(page.books(), page.nextCursor(), authorBookCounter.count(authorKey));
+    }
+
+    /**
+     * Not cached: ranges are arbitrary, and each page is one bounded index range read anyway.
+     */
+    @Override
+    public ResponseBookPage getBooksPublishedBetween(RequestBooksByDate requestBooksByDate) {
+        LocalDate fromDate = requestBooksByDate.from();
+        LocalDate toDate = requestBooksByDate.to();
+        if (fromDate == null || toDate == null || toDate.isBefore(fromDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range needs from <= to");
+        }
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+        BookCursor position = requestBooksByDate.cursor() != null
+                ? BookCursor.decode(requestBooksByDate.cursor())
+                : new BookCursor(to, Long.MIN_VALUE);
+        String authorKey = AuthorKeys.normalize(requestBooksByDate.author());
+        int pageSize = pageSize(requestBooksByDate.limit());
+        // One extra row tells us whether another page exists without a COUNT query.
+        List<ResponseBook> books = bookMetrics.findByDateRange().record(() -> authorKey == null
+                ? bookRepository.findPublishedBetween(from, to, position.publishedDate(), position.id(),
+                        Limit.of(pageSize + 1))
+                : bookRepository.findByAuthorKeyPublishedBetween(authorKey, from, to, position.publishedDate(),
+                        position.id(), Limit.of(pageSize + 1)));
+        boolean hasNext = books.size() > pageSize;
+        return page(hasNext ? books.subList(0, pageSize) : books, hasNext);
     }
 
     public ResponseBook createBook(RequestBook requestBook) {
-        BookEntity bookEntity = bookMapper.toEntity(requestBook);
-        BookEntity savedBookEntity = bookRepository.save(bookEntity);
-        return bookMapper.toResponse(savedBookEntity);
+        return bookMetrics.createBook().record(() -> {
+            BookEntity bookEntity = bookMetrics.mapToEntity().record(() -> bookMapper.toEntity(requestBook));
+            BookEntity savedBookEntity = transactionTemplate.execute(status -> {
+                BookEntity saved = bookRepository.save(bookEntity);
+                authorSummaries.add(List.of(saved));
+                authorChangeFeed.publish(List.of(saved));
+                return saved;
+            });
+            authorChanges.bookAdded(savedBookEntity.getAuthorKey());
+            ResponseBook responseBook = bookMetrics.mapToResponse().record(() -> bookMapper.toResponse(savedBookEntity));
+            bookSearchIndex.add(responseBook);
+            return responseBook;
+        });
+    }
+
+    private ResponseBookPage cachedPage(String authorKey, String cursor, int pageSize) {
+        if (authorKey == null) {
+            return loadPage(null, cursor, pageSize);
+        }
+        AuthorListingCache.ListingKey key = new AuthorListingCache.ListingKey(cursor, pageSize);
+        return authorListingCache.get(authorKey, key,
+                () -> recentAuthorChanges.load(authorKey, () -> loadPage(authorKey, cursor, pageSize)));
+    }
+
+    private ResponseBookPage loadPage(String authorKey, String cursor, int pageSize) {
+        List<ResponseBook> books;
+        boolean hasNext;
+        if (cursor == null) {
+            Slice<ResponseBook> firstSlice = bookMetrics.findFirstPage().record(
+                    () -> bookRepository.findByAuthorKey(authorKey, PageRequest.of(0, pageSize, NEWEST_FIRST)));
+            books = firstSlice.getContent();
+            hasNext = firstSlice.hasNext();
+        } else {
+            BookCursor position = BookCursor.decode(cursor);
+            // One extra row tells us whether another page exists without a COUNT query.
+            books = bookMetrics.findNextPage().record(() -> position.publishedDate() == null
+                    ? bookRepository.findUndatedByAuthorKeyBefore(authorKey, position.id(), Limit.of(pageSize + 1))
+                    : bookRepository.findByAuthorKeyBefore(
+                            authorKey, position.publishedDate(), position.id(), Limit.of(pageSize + 1)));
+            hasNext = books.size() > pageSize;
+            if (hasNext) {
+                books = books.subList(0, pageSize);
+            }
+        }
+
+        return page(books, hasNext);
+    }
+
+    private Map<String, ResponseBookPage> loadFirstPages(Set<String> authorKeys, int pageSize) {
+        // One extra row per author tells us whether each has a next page.
+        List<AuthorBookRow> rows = bookMetrics.findByAuthors().record(
+                () -> bookRepository.findNewestByAuthorKeys(authorKeys, pageSize + 1));
+        Map<String, List<ResponseBook>> booksByAuthor = new HashMap<>();
+        for (AuthorBookRow row : rows) {
+            booksByAuthor.computeIfAbsent(row.getAuthorKey(), ignored -> new ArrayList<>(pageSize + 1))
+                    .add(new ResponseBook(row.getId(), row.getTitle(), row.getAuthor(), row.getPublishedDate()));
+        }
+        Map<String, ResponseBookPage> pages = new HashMap<>();
+        for (String authorKey : authorKeys) {
+            List<ResponseBook> books = booksByAuthor.getOrDefault(authorKey, List.of());
+            boolean hasNext = books.size() > pageSize;
+            pages.put(authorKey, page(hasNext ? books.subList(0, pageSize) : books, hasNext));
+        }
+        return pages;
+    }
+
+    private static ResponseBookPage page(List<ResponseBook> books, boolean hasNext) {
+        String nextCursor = null;
+        if (hasNext) {
+            ResponseBook last = books.getLast();
+            nextCursor = new BookCursor(last.publishedDate(), last.id()).encode();
+        }
+        return new ResponseBookPage(books, nextCursor, null);
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 }
@@ -0,0 +1,281 @@
+package com.th.ascend.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepts validated books into a bounded queue and persists them from a single background writer.
+ * <p>
+ * The writer takes whatever is queued, up to {@code book.write-behind.batch-size}, waiting at most
+ * {@code book.write-behind.max-delay} after the first book for the batch to fill, and stores the batch
+ * with one {@code saveAll}. Under load every transaction carries a full batch, so throughput follows
+ * the batch size rather than the request rate. A full queue rejects new books with
+ * {@code 429 Too Many Requests}. Each accepted book gets a ticket whose status can be polled until
+ * {@code book.write-behind.ticket-retention} after its last change. On shutdown the writer drains the
+ * queue once the web server has stopped taking requests.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "book.write-behind", name = "enabled", havingValue = "true")
+public class BookWriteBehindQueue implements SmartLifecycle, MeterBinder {
+
+    private static final long MAXIMUM_TICKETS = 100_000;
+
+    private final BookRepository bookRepository;
+
+    private final BookMapper bookMapper;
+
+    private final AuthorChanges authorChanges;
+
+    private final AuthorSummaries authorSummaries;
+
+    private final AuthorChangeFeed authorChangeFeed;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final WriteBehindProperties properties;
+
+    private final BlockingQueue<Pending> queue;
+
+    private final Cache<UUID, ResponseBookTicket> tickets;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile DistributionSummary batchSizes;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public BookWriteBehindQueue(BookRepository bookRepository, BookMapper bookMapper, AuthorChanges authorChanges,
+                                AuthorSummaries authorSummaries, AuthorChangeFeed authorChangeFeed,
+                                TransactionTemplate transactionTemplate, BookSearchIndex bookSearchIndex,
+                                WriteBehindProperties properties) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.authorChanges = authorChanges;
+        this.authorSummaries = authorSummaries;
+        this.authorChangeFeed = authorChangeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.bookSearchIndex = bookSearchIndex;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_TICKETS)
+                .expireAfterWrite(properties.ticketRetention())
+                .build();
+    }
+
+    public ResponseBookTicket submit(RequestBook requestBook) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write-behind queue is not running");
+        }
+        ResponseBookTicket ticket = ResponseBookTicket.queued(UUID.randomUUID());
+        // Recorded before queueing so the writer never completes a ticket that does not exist yet.
+        tickets.put(ticket.ticket(), ticket);
+        if (!queue.offer(new Pending(ticket.ticket(), requestBook))) {
+            tickets.invalidate(ticket.ticket());
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Write-behind queue is full");
+        }
+        return ticket;
+    }
+
+    public ResponseBookTicket ticket(UUID ticket) {
+        ResponseBookTicket status = tickets.getIfPresent(ticket);
+        if (status == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired ticket");
+        }
+        return status;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("book-write-behind").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writer.join(properties.drainTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            writer.interrupt();
+            log.warn("Write-behind queue did not drain within {}, {} books left unstored",
+                    properties.drainTimeout(), queue.size());
+            return;
+        }
+        // Books offered while the writer was finishing its last batch.
+        List<Pending> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        write(leftovers);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (phases {@code DEFAULT_PHASE - 1024} and {@code - 2048}), so nothing is
+     * accepted into a queue that is already draining.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        List<Pending> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < properties.batchSize()) {
+                    queue.drainTo(batch, properties.batchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == properties.batchSize() || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind batch of {} books failed", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        List<BookEntity> entities = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            entities.add(bookMapper.toEntity(pending.requestBook()));
+        }
+        List<BookEntity> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                List<BookEntity> stored = bookRepository.saveAll(entities);
+                authorSummaries.add(stored);
+                authorChangeFeed.publish(stored);
+                return stored;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} books failed, retrying row by row", batch.size(), e);
+            try {
+                saveRowByRow(batch, entities);
+            } finally {
+                evictAuthors(entities);
+            }
+            return;
+        }
+        // Outside the try: the batch has committed, so a failure from here on must not store it again.
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i).ticket(), saved.get(i));
+            }
+        } finally {
+            evictAuthors(entities);
+        }
+    }
+
+    private void saveRowByRow(List<Pending> batch, List<BookEntity> entities) {
+        for (int i = 0; i < batch.size(); i++) {
+            BookEntity entity = entities.get(i);
+            // Ids assigned by the rolled back attempt are discarded; the entity is new again.
+            entity.setId(0L);
+            BookEntity saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    BookEntity stored = bookRepository.save(entity);
+                    authorSummaries.add(List.of(stored));
+                    authorChangeFeed.publish(List.of(stored));
+                    return stored;
+                });
+            } catch (RuntimeException rowFailure) {
+                tickets.put(batch.get(i).ticket(), new ResponseBookTicket(batch.get(i).ticket(),
+                        ResponseBookTicket.Status.FAILED, null,
+                        "Could not store book: " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                continue;
+            }
+            complete(batch.get(i).ticket(), saved);
+        }
+    }
+
+    private void complete(UUID ticket, BookEntity saved) {
+        tickets.put(ticket, new ResponseBookTicket(ticket, ResponseBookTicket.Status.CREATED, saved.getId(), null));
+        bookSearchIndex.add(bookMapper.toResponse(saved));
+    }
+
+    private void evictAuthors(List<BookEntity> entities) {
+        Set<String> authors = new HashSet<>();
+        for (BookEntity entity : entities) {
+            authors.add(entity.getAuthorKey());
+        }
+        authorChanges.booksChanged(authors);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchSizes = DistributionSummary.builder("book.write-behind.batch")
+                .description("Books stored per write-behind batch")
+                .register(registry);
+        Gauge.builder("book.write-behind.queue", queue, BlockingQueue::size)
+                .description("Books accepted but not yet stored")
+                .register(registry);
+        FunctionCounter.builder("book.write-behind.rejected", rejected, LongAdder::sum)
+                .description("Books rejected because the write-behind queue was full")
+                .register(registry);
+    }
+
+    private record Pending(UUID ticket, RequestBook requestBook) {
+    }
+}
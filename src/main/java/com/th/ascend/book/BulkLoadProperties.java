@@ -0,0 +1,14 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "book.bulk")
+public record BulkLoadProperties(
+        @DefaultValue("500")
+        int batchSize,
+
+        @DefaultValue("1000")
+        int maximumReportedFailures
+) {
+}
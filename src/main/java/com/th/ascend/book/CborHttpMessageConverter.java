@@ -0,0 +1,18 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@code application/cbor} with the same Jackson modules and settings as JSON, in place
+ * of Spring's default CBOR converter, which would not pick up Boot's {@code spring.jackson.*} settings.
+ */
+@Component
+public class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public CborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        super(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,164 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits requests to the database through a fair semaphore per connection pool, sized to that pool.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} every request gets its own cheap thread, so a burst
+ * can put thousands of callers on the pool at once. Wrapping the {@link DataSource} makes them queue on
+ * the semaphore instead, and only for as long as they actually hold a connection; requests served from
+ * a cache never take a permit. A caller that waits longer than {@code book.db-limiter.max-wait} fails
+ * fast with {@link SQLTransientConnectionException}, as Hikari does on its own timeout.
+ * <p>
+ * With read replicas the primary and every replica pool get their own semaphore, so reads queue only
+ * behind the replica they were routed to and writes only behind the primary.
+ */
+@Component
+@ConditionalOnProperty(prefix = "book.db-limiter", name = "enabled", havingValue = "true")
+public class DbAdmissionLimiter implements BeanPostProcessor, MeterBinder {
+
+    private final int maximumPermits;
+
+    private final long maxWaitNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final List<AdmissionControlledDataSource> pools = new CopyOnWriteArrayList<>();
+
+    private volatile Timer waitTimer;
+
+    public DbAdmissionLimiter(DbAdmissionProperties properties) {
+        this.maximumPermits = properties.permits();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ReadWriteRoutingDataSource routing) {
+            routing.admitThrough(this::admitting);
+            return bean;
+        }
+        // The application-facing DataSource, unless it only defers to a routing DataSource admitted above.
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !routes(dataSource)) {
+            return admitting(dataSource);
+        }
+        return bean;
+    }
+
+    private static boolean routes(DataSource dataSource) {
+        return dataSource instanceof LazyConnectionDataSourceProxy proxy
+                && proxy.getTargetDataSource() instanceof ReadWriteRoutingDataSource;
+    }
+
+    private DataSource admitting(DataSource pool) {
+        AdmissionControlledDataSource admitted = new AdmissionControlledDataSource(pool);
+        pools.add(admitted);
+        return admitted;
+    }
+
+    private Connection admit(Semaphore permits, DataSource dataSource) throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database admission permit", e);
+        }
+        if (waitTimer != null) {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("Timed out waiting for a database admission permit");
+        }
+        try {
+            return releasingOnClose(dataSource.getConnection(), permits);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    // Identity of the proxy itself, as Spring's connection proxies do, not of the target.
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder("book.db.admission.wait")
+                .description("Time spent waiting for a database admission permit")
+                .register(registry);
+        Gauge.builder("book.db.admission.queue", pools,
+                        admitted -> admitted.stream().mapToInt(pool -> pool.permits.getQueueLength()).sum())
+                .description("Callers waiting for a database admission permit")
+                .register(registry);
+        Gauge.builder("book.db.admission.active", pools,
+                        admitted -> admitted.stream().mapToInt(AdmissionControlledDataSource::inUse).sum())
+                .description("Database admission permits in use")
+                .register(registry);
+        FunctionCounter.builder("book.db.admission.rejected", rejected, LongAdder::sum)
+                .description("Callers that timed out waiting for a database admission permit")
+                .register(registry);
+    }
+
+    private class AdmissionControlledDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits = new Semaphore(maximumPermits, true);
+
+        private AdmissionControlledDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return admit(permits, obtainTargetDataSource());
+        }
+
+        private int inUse() {
+            return maximumPermits - permits.availablePermits();
+        }
+    }
+}
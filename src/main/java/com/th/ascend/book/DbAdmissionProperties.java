@@ -0,0 +1,19 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "book.db-limiter")
+public record DbAdmissionProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("10")
+        int permits,
+
+        @DefaultValue("5s")
+        Duration maxWait
+) {
+}
@@ -0,0 +1,11 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "book.export")
+public record ExportProperties(
+        @DefaultValue("1000")
+        int fetchSize
+) {
+}
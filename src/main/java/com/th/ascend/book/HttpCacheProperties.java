@@ -0,0 +1,16 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "book.http-cache")
+public record HttpCacheProperties(
+        @DefaultValue("30s")
+        Duration maxAge,
+
+        @DefaultValue("30s")
+        Duration staleWhileRevalidate
+) {
+}
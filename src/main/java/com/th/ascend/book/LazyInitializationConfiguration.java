@@ -0,0 +1,19 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the book API eager under {@code spring.main.lazy-initialization=true} (the {@code prod} profile).
+ * Its dependencies are created with it, so the service, repositories, JPA, the connection pool and the
+ * listing caches are ready before the first request; everything else is created on first use.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter bookApiLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookController.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Parser for {@code yyyy-MM-dd HH:mm:ss} published dates shared by {@link YearValidator},
+ * {@link BuddhistDateDeserializer} and {@link BookMapper}.
+ * <p>
+ * The fixed-width layout is read digit by digit, so bad input is rejected by returning {@code null}
+ * instead of throwing. Years above the current CE year are taken as Buddhist Era and shifted back by
+ * 543; a year is accepted between 1000 CE and the current year + 543 (BE). The last successful parse
+ * on each thread is remembered, so the mapper reuses what the validator just parsed for the same string.
+ */
+public final class PublishedDates {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    public static final int BUDDHIST_ERA_OFFSET = 543;
+
+    private static final int MIN_YEAR = 1000;
+
+    private static final int LENGTH = PATTERN.length();
+
+    private static final ThreadLocal<Parsed> LAST_PARSED = new ThreadLocal<>();
+
+    private static final Counter BUDDHIST_ERA_CONVERSIONS = Counter.builder("book.date.buddhist.converted")
+            .description("Published dates converted from the Buddhist Era to CE")
+            .register(Metrics.globalRegistry);
+
+    private static final Clock CLOCK = Clock.systemDefaultZone();
+
+    private static volatile YearWindow yearWindow = YearWindow.at(CLOCK);
+
+    private PublishedDates() {
+    }
+
+    /**
+     * @return the date normalised to the CE calendar, or {@code null} if the text is malformed or out of range
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        Parsed last = LAST_PARSED.get();
+        if (last != null && last.text() == text) {
+            return last.value();
+        }
+        LocalDateTime value = parse(text, currentYear());
+        if (value != null) {
+            LAST_PARSED.set(new Parsed(text, value));
+        }
+        return value;
+    }
+
+    static LocalDateTime parse(CharSequence text, int currentYear) {
+        if (text.length() != LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return null;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if (year < MIN_YEAR || year > currentYear + BUDDHIST_ERA_OFFSET) {
+            return null;
+        }
+        boolean buddhistEra = year > currentYear;
+        if (buddhistEra) {
+            year -= BUDDHIST_ERA_OFFSET;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        if (buddhistEra) {
+            BUDDHIST_ERA_CONVERSIONS.increment();
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    static int currentYear() {
+        YearWindow window = yearWindow;
+        if (CLOCK.millis() >= window.endMillis()) {
+            window = YearWindow.at(CLOCK);
+            yearWindow = window;
+        }
+        return window.year();
+    }
+
+    /**
+     * @return the value of {@code length} ASCII digits starting at {@code offset}, or -1 if any is not a digit
+     */
+    private static int digits(CharSequence text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private record Parsed(CharSequence text, LocalDateTime value) {
+    }
+
+    /**
+     * The current year together with the instant it ends, so the clock is only consulted per call.
+     */
+    private record YearWindow(int year, long endMillis) {
+
+        private static YearWindow at(Clock clock) {
+            ZoneId zone = clock.getZone();
+            int year = LocalDate.now(clock).getYear();
+            long endMillis = ZonedDateTime.of(year + 1, 1, 1, 0, 0, 0, 0, zone).toInstant().toEpochMilli();
+            return new YearWindow(year, endMillis);
+        }
+    }
+}
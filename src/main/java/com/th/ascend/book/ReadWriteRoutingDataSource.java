@@ -0,0 +1,128 @@
+package com.th.ascend.book;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Sends connections of read-only transactions to a replica pool and everything else to the primary.
+ * <p>
+ * The transaction's read-only flag is only known once it has started, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers fetching
+ * the physical connection until the first statement. A thread that is {@linkplain #pinToPrimary()
+ * pinned} reads from the primary, so a client sees its own recent writes despite replication lag.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+
+    private final List<HikariDataSource> replicas;
+
+    private final ReplicaDataSourceProperties.Balancing balancing;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Where each pool's connections are taken from; the pool itself unless admitted through a limiter.
+    private volatile Map<DataSource, DataSource> admitted = Map.of();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                      ReplicaDataSourceProperties.Balancing balancing) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    /**
+     * Runs {@code action} pinned to the primary, leaving a pin the caller already holds in place.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return action.get();
+        }
+        pinToPrimary();
+        try {
+            return action.get();
+        } finally {
+            unpin();
+        }
+    }
+
+    /**
+     * Takes each pool's connections through the data source {@code admission} wraps it in, such as
+     * {@link DbAdmissionLimiter}'s per-pool semaphore.
+     */
+    public void admitThrough(UnaryOperator<DataSource> admission) {
+        Map<DataSource, DataSource> wrapped = new IdentityHashMap<>();
+        wrapped.put(primary, admission.apply(primary));
+        replicas.forEach(replica -> wrapped.put(replica, admission.apply(replica)));
+        admitted = wrapped;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return admitted(determineTargetDataSource()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return admitted(determineTargetDataSource()).getConnection(username, password);
+    }
+
+    private DataSource admitted(DataSource pool) {
+        return admitted.getOrDefault(pool, pool);
+    }
+
+    DataSource determineTargetDataSource() {
+        if (replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PINNED_TO_PRIMARY.get() != null) {
+            return primary;
+        }
+        return switch (balancing) {
+            case ROUND_ROBIN -> replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            case LEAST_CONNECTIONS -> leastBusyReplica();
+        };
+    }
+
+    private DataSource leastBusyReplica() {
+        HikariDataSource leastBusy = replicas.getFirst();
+        int fewestActive = Integer.MAX_VALUE;
+        for (HikariDataSource replica : replicas) {
+            HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < fewestActive) {
+                fewestActive = active;
+                leastBusy = replica;
+            }
+        }
+        return leastBusy;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,77 @@
+package com.th.ascend.book;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Authors changed within the last {@code book.datasource.read-your-writes-window}, whose listings and
+ * totals are loaded from the primary.
+ * <p>
+ * The {@link ReadYourWritesFilter} cookie only steers reads that reach the database. Whatever a cache miss
+ * loads is cached for every client, the writer included, so a listing loaded from a lagging replica right
+ * after a write would be served stale until the author changes again or the entry expires. Without
+ * replicas every read uses the primary anyway and this costs one cache lookup.
+ */
+@Component
+public class RecentAuthorChanges {
+
+    private static final long MAXIMUM_SIZE = 100_000;
+
+    private final long windowMillis;
+
+    private final Cache<String, Boolean> authors;
+
+    // Until when every author counts as changed, after changes may have been missed.
+    private volatile long allChangedUntil;
+
+    @Autowired
+    public RecentAuthorChanges(ReplicaDataSourceProperties properties) {
+        this(properties.readYourWritesWindow());
+    }
+
+    RecentAuthorChanges(Duration window) {
+        this.windowMillis = window.toMillis();
+        this.authors = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_SIZE)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void changed(String authorKey) {
+        authors.put(authorKey, Boolean.TRUE);
+    }
+
+    public void allChanged() {
+        allChangedUntil = System.currentTimeMillis() + windowMillis;
+    }
+
+    public boolean changedRecently(String authorKey) {
+        return authors.getIfPresent(authorKey) != null || System.currentTimeMillis() < allChangedUntil;
+    }
+
+    /**
+     * Runs {@code loader} against the primary if the author changed recently.
+     */
+    public <T> T load(String authorKey, Supplier<T> loader) {
+        return authorKey != null && changedRecently(authorKey) ? ReadWriteRoutingDataSource.onPrimary(loader)
+                : loader.get();
+    }
+
+    /**
+     * Runs {@code loader} against the primary if any of the authors changed recently.
+     */
+    public <T> T load(Collection<String> authorKeys, Supplier<T> loader) {
+        for (String authorKey : authorKeys) {
+            if (changedRecently(authorKey)) {
+                return ReadWriteRoutingDataSource.onPrimary(loader);
+            }
+        }
+        return loader.get();
+    }
+}
@@ -0,0 +1,31 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "book.datasource")
+public record ReplicaDataSourceProperties(
+        @DefaultValue
+        List<Replica> replicas,
+
+        @DefaultValue("round-robin")
+        Balancing balancing,
+
+        @DefaultValue("5s")
+        Duration readYourWritesWindow
+) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password) {
+    }
+
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+}
@@ -1,6 +1,16 @@
 package com.th.ascend.book;
 
 public record RequestBookByAuthor(
-        String author
+        String author,
+        String cursor,
+        Integer limit,
+        boolean includeTotal
 ) {
+    public RequestBookByAuthor(String author) {
+        this(author, null, null, false);
+    }
+
+    public RequestBookByAuthor(String author, String cursor, Integer limit) {
+        this(author, cursor, limit, false);
+    }
 }
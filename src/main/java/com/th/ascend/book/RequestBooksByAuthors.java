@@ -0,0 +1,19 @@
+package com.th.ascend.book;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RequestBooksByAuthors(
+        @NotEmpty
+        @Size(max = 100)
+        List<@NotBlank String> authors,
+
+        Integer limit
+) {
+    public RequestBooksByAuthors(List<String> authors) {
+        this(authors, null);
+    }
+}
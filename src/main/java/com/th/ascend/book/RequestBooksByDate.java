@@ -0,0 +1,15 @@
+package com.th.ascend.book;
+
+import java.time.LocalDate;
+
+/**
+ * Books published from the start of {@code from} to the end of {@code to}, optionally by one author.
+ */
+public record RequestBooksByDate(
+        LocalDate from,
+        LocalDate to,
+        String author,
+        String cursor,
+        Integer limit
+) {
+}
@@ -0,0 +1,9 @@
+package com.th.ascend.book;
+
+import java.util.List;
+
+public record ResponseAuthorBooks(
+        String author,
+        List<ResponseBook> books,
+        String nextCursor) {
+}
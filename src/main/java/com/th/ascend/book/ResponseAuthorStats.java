@@ -0,0 +1,12 @@
+package com.th.ascend.book;
+
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+public record ResponseAuthorStats(
+        String author,
+        long books,
+        LocalDateTime firstPublishedDate,
+        LocalDateTime latestPublishedDate,
+        SortedMap<Integer, Long> booksPerYear) {
+}
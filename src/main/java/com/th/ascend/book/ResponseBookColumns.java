@@ -0,0 +1,53 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A book listing stored by column instead of by row. Each distinct author spelling is sent once, in
+ * {@code authors}. {@code authorIndexes} points every row at its spelling and is left out when there is
+ * only one. {@code publishedDates} are seconds since 1970-01-01T00:00 in the same local time as
+ * {@link ResponseBook#publishedDate()}. Legacy rows without a date hold 0 there and are listed in
+ * {@code undatedIndexes}, which is left out when every row has a date.
+ */
+public record ResponseBookColumns(
+        List<String> authors,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        int[] authorIndexes,
+        long[] ids,
+        List<String> titles,
+        long[] publishedDates,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        int[] undatedIndexes,
+        String nextCursor) {
+
+    public static ResponseBookColumns of(List<ResponseBook> books, String nextCursor) {
+        int size = books.size();
+        Map<String, Integer> authors = new LinkedHashMap<>();
+        int[] authorIndexes = new int[size];
+        long[] ids = new long[size];
+        List<String> titles = new ArrayList<>(size);
+        long[] publishedDates = new long[size];
+        int[] undatedIndexes = new int[size];
+        int undated = 0;
+        for (int i = 0; i < size; i++) {
+            ResponseBook book = books.get(i);
+            authorIndexes[i] = authors.computeIfAbsent(book.author(), ignored -> authors.size());
+            ids[i] = book.id();
+            titles.add(book.title());
+            if (book.publishedDate() != null) {
+                publishedDates[i] = book.publishedDate().toEpochSecond(ZoneOffset.UTC);
+            } else {
+                undatedIndexes[undated++] = i;
+            }
+        }
+        return new ResponseBookColumns(List.copyOf(authors.keySet()), authors.size() > 1 ? authorIndexes : null,
+                ids, titles, publishedDates, undated > 0 ? Arrays.copyOf(undatedIndexes, undated) : null, nextCursor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record ResponseBookPage(
+        List<ResponseBook> books,
+        String nextCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long total) {
+}
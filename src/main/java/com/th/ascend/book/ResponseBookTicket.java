@@ -0,0 +1,24 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+public record ResponseBookTicket(
+        UUID ticket,
+        Status status,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Long id,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String message) {
+
+    public enum Status {
+        QUEUED,
+        CREATED,
+        FAILED
+    }
+
+    static ResponseBookTicket queued(UUID ticket) {
+        return new ResponseBookTicket(ticket, Status.QUEUED, null, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.th.ascend.book;
+
+import java.util.List;
+
+public record ResponseBulkBook(
+        long received,
+        long created,
+        long failed,
+        List<Failure> failures) {
+
+    /**
+     * A rejected element, identified by its zero-based position in the request body.
+     */
+    public record Failure(
+            long index,
+            String message) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.th.ascend.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Replaces Boot's default Jackson converter to time request body deserialization and response
+ * serialization. Read time includes waiting on the request body stream.
+ */
+@Component
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer readTimer;
+
+    private final Timer writeTimer;
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(objectMapper);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.readTimer = jsonTimer(registry, "read");
+        this.writeTimer = jsonTimer(registry, "write");
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        Timer.Sample sample = Timer.start();
+        try {
+            return super.read(type, contextClass, inputMessage);
+        } finally {
+            sample.stop(readTimer);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Timer.Sample sample = Timer.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            sample.stop(writeTimer);
+        }
+    }
+
+    private static Timer jsonTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("book.json")
+                .description("JSON request body deserialization and response serialization")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.th.ascend.book;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "book.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false")
+        boolean enabled,
+
+        @DefaultValue("10000")
+        int queueCapacity,
+
+        @DefaultValue("500")
+        int batchSize,
+
+        @DefaultValue("200ms")
+        Duration maxDelay,
+
+        @DefaultValue("30s")
+        Duration drainTimeout,
+
+        @DefaultValue("10m")
+        Duration ticketRetention
+) {
+}
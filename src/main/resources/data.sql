@@ -1,14 +1,20 @@
 
 TRUNCATE TABLE book;
+-- Emptied with book; AuthorSummaries rebuilds them from the rows below on startup.
+TRUNCATE TABLE author_summary;
+TRUNCATE TABLE author_year_summary;
 
-INSERT INTO book (title, author, published_date)
-VALUES ('The Great Gatsby', 'F. Scott Fitzgerald', '2020-01-15 10:30:00'),
-       ('To Kill a Mockingbird', 'Harper Lee', '2019-03-20 14:45:00'),
-       ('1984', 'George Orwell', '2021-06-10 09:00:00'),
-       ('Pride and Prejudice', 'Jane Austen', '2018-11-25 16:20:00'),
-       ('Animal Farm', 'George Orwell', '2020-08-05 11:15:00'),
-       ('The Catcher in the Rye', 'J.D. Salinger', '2022-02-28 13:30:00'),
-       ('Brave New World', 'Aldous Huxley', '2021-12-01 10:00:00'),
-       ('The Lord of the Rings', 'J.R.R. Tolkien', '2023-04-15 15:45:00'),
-       ('Harry Potter and the Philosopher''s Stone', 'J.K. Rowling', '2023-07-20 08:30:00'),
-       ('Nineteen Eighty-Four', 'George Orwell', '2022-09-10 17:00:00');
\ No newline at end of file
+INSERT INTO book (id, title, author, author_key, published_date)
+VALUES (1, 'The Great Gatsby', 'F. Scott Fitzgerald', 'f. scott fitzgerald', '2020-01-15 10:30:00'),
+       (2, 'To Kill a Mockingbird', 'Harper Lee', 'harper lee', '2019-03-20 14:45:00'),
+       (3, '1984', 'George Orwell', 'george orwell', '2021-06-10 09:00:00'),
+       (4, 'Pride and Prejudice', 'Jane Austen', 'jane austen', '2018-11-25 16:20:00'),
+       (5, 'Animal Farm', 'George Orwell', 'george orwell', '2020-08-05 11:15:00'),
+       (6, 'The Catcher in the Rye', 'J.D. Salinger', 'j.d. salinger', '2022-02-28 13:30:00'),
+       (7, 'Brave New World', 'Aldous Huxley', 'aldous huxley', '2021-12-01 10:00:00'),
+       (8, 'The Lord of the Rings', 'J.R.R. Tolkien', 'j.r.r. tolkien', '2023-04-15 15:45:00'),
+       (9, 'Harry Potter and the Philosopher''s Stone', 'J.K. Rowling', 'j.k. rowling', '2023-07-20 08:30:00'),
+       (10, 'Nineteen Eighty-Four', 'George Orwell', 'george orwell', '2022-09-10 17:00:00');
+
+UPDATE book_seq
+SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM book));
@@ -0,0 +1,16 @@
+-- Moves an existing book table from AUTO_INCREMENT ids to the pooled book_seq allocator.
+-- Run once, with writers stopped, before deploying the version that allocates ids from book_seq.
+
+CREATE TABLE IF NOT EXISTS book_seq
+(
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO book_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1
+FROM book
+WHERE NOT EXISTS (SELECT 1 FROM book_seq);
+
+-- Without AUTO_INCREMENT a writer that bypasses the allocator fails loudly instead of taking ids
+-- that the application has already reserved.
+ALTER TABLE book MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,12 @@
+-- Adds the normalized author lookup key and moves the author indexes onto it.
+-- MySQL cannot apply the application's Unicode folding, so the column is added nullable and the
+-- application fills it on startup (AuthorKeyBackfill). Once no row has a NULL author_key, finish with:
+--   ALTER TABLE book MODIFY author_key VARCHAR(255) NOT NULL;
+
+ALTER TABLE book
+    ADD COLUMN author_key VARCHAR(255) NULL AFTER author,
+    ADD INDEX idx_author_key_published_date (author_key, published_date);
+
+ALTER TABLE book
+    DROP INDEX idx_author,
+    DROP INDEX idx_author_published_date;
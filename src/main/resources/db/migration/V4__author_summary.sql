@@ -0,0 +1,20 @@
+-- Per-author aggregates for author statistics, kept current by every insert into book.
+-- The tables start empty; AuthorSummaries fills them from book on the next startup.
+
+CREATE TABLE author_summary
+(
+    author_key            VARCHAR(255) NOT NULL,
+    author                VARCHAR(255) NOT NULL,
+    book_count            BIGINT       NOT NULL,
+    first_published_date  DATETIME     NULL,
+    latest_published_date DATETIME     NULL,
+    PRIMARY KEY (author_key)
+);
+
+CREATE TABLE author_year_summary
+(
+    author_key     VARCHAR(255) NOT NULL,
+    published_year INT          NOT NULL,
+    book_count     BIGINT       NOT NULL,
+    PRIMARY KEY (author_key, published_year)
+);
@@ -0,0 +1,4 @@
+-- Serves published-date range queries (GET /api/v1/books/releases) that are not narrowed to one author.
+
+ALTER TABLE book
+    ADD INDEX idx_published_date (published_date);
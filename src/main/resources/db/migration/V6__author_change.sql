@@ -0,0 +1,14 @@
+-- Outbox of changed authors for cross-instance cache eviction and search indexing (book.author-change-feed.enabled=true).
+-- Create it before enabling the feed; rows are deleted once older than book.author-change-feed.retention.
+
+CREATE TABLE author_change
+(
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    author_key    VARCHAR(255) NOT NULL,
+    first_book_id BIGINT       NOT NULL,
+    last_book_id  BIGINT       NOT NULL,
+    origin        VARCHAR(36)  NOT NULL,
+    created_at    DATETIME(3)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_author_change_created_at (created_at)
+);
@@ -0,0 +1,45 @@
+-- MySQL layout of book, RANGE-partitioned on published_date, for large catalogues. Enabled by the
+-- "partitioned" profile, which runs this file before schema.sql; schema.sql then finds book already
+-- created and adds only the remaining tables. H2 and the default profile keep the plain table.
+--
+-- Date-range reads (GET /api/v1/books/releases) bound published_date explicitly, so MySQL prunes them
+-- to the partitions they overlap. Author reads use idx_author_key_published_date in every partition.
+--
+-- MySQL requires the partitioning column in every unique key, so the primary key is (id, published_date)
+-- and id alone is no longer enforced unique; ids come from book_seq, which never hands one out twice.
+-- RANGE COLUMNS does not accept TIMESTAMP, hence DATETIME.
+--
+-- Add each new year before it starts, by splitting the catch-all partition:
+--   ALTER TABLE book REORGANIZE PARTITION p_future INTO (
+--       PARTITION p2027 VALUES LESS THAN ('2028-01-01'),
+--       PARTITION p_future VALUES LESS THAN (MAXVALUE));
+--
+-- An existing table is converted the same way, with writers stopped:
+--   ALTER TABLE book MODIFY published_date DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+--       DROP PRIMARY KEY, ADD PRIMARY KEY (id, published_date);
+--   ALTER TABLE book PARTITION BY RANGE COLUMNS (published_date) (...partitions as below...);
+
+CREATE TABLE IF NOT EXISTS book
+(
+    id             BIGINT       NOT NULL,
+    title          VARCHAR(255) NOT NULL,
+    author         VARCHAR(255) NOT NULL,
+    author_key     VARCHAR(255) NOT NULL,
+    published_date DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, published_date),
+    INDEX idx_author_key_published_date (author_key, published_date),
+    INDEX idx_published_date (published_date)
+)
+    PARTITION BY RANGE COLUMNS (published_date) (
+        PARTITION p_before_2000 VALUES LESS THAN ('2000-01-01'),
+        PARTITION p2000s VALUES LESS THAN ('2010-01-01'),
+        PARTITION p2010s VALUES LESS THAN ('2020-01-01'),
+        PARTITION p2020 VALUES LESS THAN ('2021-01-01'),
+        PARTITION p2021 VALUES LESS THAN ('2022-01-01'),
+        PARTITION p2022 VALUES LESS THAN ('2023-01-01'),
+        PARTITION p2023 VALUES LESS THAN ('2024-01-01'),
+        PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+        PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+        PARTITION p_future VALUES LESS THAN (MAXVALUE)
+        );
@@ -1,11 +1,56 @@
 
 CREATE TABLE IF NOT EXISTS book
 (
-    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    id             BIGINT       NOT NULL,
     title          VARCHAR(255) NOT NULL,
     author         VARCHAR(255) NOT NULL,
+    author_key     VARCHAR(255) NOT NULL,
     published_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     PRIMARY KEY (id),
-    INDEX idx_author (author),
-    INDEX idx_author_published_date (author, published_date)
+    INDEX idx_author_key_published_date (author_key, published_date),
+    INDEX idx_published_date (published_date)
+);
+
+-- Id allocator for BookEntity (MySQL has no sequences, Hibernate uses this one-row table instead).
+-- Each allocation reserves a block of 100 ids, so inserts need no AUTO_INCREMENT round trip.
+CREATE TABLE IF NOT EXISTS book_seq
+(
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO book_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1
+FROM book
+WHERE NOT EXISTS (SELECT 1 FROM book_seq);
+
+-- Per-author aggregates, maintained with every insert into book (see AuthorSummaries).
+CREATE TABLE IF NOT EXISTS author_summary
+(
+    author_key            VARCHAR(255) NOT NULL,
+    author                VARCHAR(255) NOT NULL,
+    book_count            BIGINT       NOT NULL,
+    first_published_date  DATETIME     NULL,
+    latest_published_date DATETIME     NULL,
+    PRIMARY KEY (author_key)
+);
+
+CREATE TABLE IF NOT EXISTS author_year_summary
+(
+    author_key     VARCHAR(255) NOT NULL,
+    published_year INT          NOT NULL,
+    book_count     BIGINT       NOT NULL,
+    PRIMARY KEY (author_key, published_year)
+);
+
+-- Outbox of changed authors and their new book ids, polled by every instance (see AuthorChangeFeed).
+CREATE TABLE IF NOT EXISTS author_change
+(
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    author_key    VARCHAR(255) NOT NULL,
+    first_book_id BIGINT       NOT NULL,
+    last_book_id  BIGINT       NOT NULL,
+    origin        VARCHAR(36)  NOT NULL,
+    created_at    DATETIME(3)  NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_author_change_created_at (created_at)
 );
@@ -0,0 +1,178 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Two instances sharing one database: the application under test, and a second instance made of its own
+ * caches and feed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "book.author-change-feed.enabled=true",
+        // Polled by the tests instead.
+        "book.author-change-feed.poll-interval=1h"})
+@ActiveProfiles("test")
+class AuthorChangeFeedTest {
+
+    private static final AuthorListingCache.ListingKey FIRST_PAGE = new AuthorListingCache.ListingKey(null, 10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AuthorChangeFeed authorChangeFeed;
+
+    @Autowired
+    private AuthorVersions authorVersions;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthorListingCache otherListingCache;
+
+    private AuthorVersions otherVersions;
+
+    private BookSearchIndex otherSearchIndex;
+
+    private AuthorChangeFeed otherFeed;
+
+    @BeforeEach
+    void startOtherInstance() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM author_change");
+        otherListingCache = new AuthorListingCache(new AuthorListingCacheProperties(100, 16, Duration.ofMinutes(10)));
+        otherVersions = new AuthorVersions();
+        AuthorChanges otherChanges = new AuthorChanges(mock(AuthorBookCounter.class), otherListingCache,
+                mock(AuthorListingBytes.class), otherVersions, new RecentAuthorChanges(Duration.ofSeconds(5)));
+        AuthorChangeFeedProperties properties = new AuthorChangeFeedProperties(true, Duration.ofHours(1), 2,
+                Duration.ofSeconds(30), Duration.ofHours(1));
+        otherSearchIndex = new BookSearchIndex(dataSource, new ExportProperties(1000),
+                new BookMetrics(new SimpleMeterRegistry()));
+        otherSearchIndex.rebuild();
+        otherFeed = new AuthorChangeFeed(dataSource, otherChanges, otherSearchIndex, properties);
+        otherFeed.seek();
+    }
+
+    @Test
+    void shouldEvictOnlyTheChangedAuthor_onOtherInstance() {
+        AtomicInteger loads = new AtomicInteger();
+        cachedPage("george orwell", loads);
+        cachedPage("jane austen", loads);
+        assertEquals(2, loads.get());
+
+        RequestBook request = new RequestBook("Homage to Catalonia", "George Orwell", "Secker", "1938-04-25 10:00:00");
+        assertEquals(HttpStatus.OK,
+                restTemplate.postForEntity("http://localhost:" + port + "/api/v1/books", request, ResponseBook.class)
+                        .getStatusCode());
+        cachedPage("george orwell", loads);
+        assertEquals(2, loads.get(), "Stale until the other instance polls");
+
+        AuthorVersions.Stamp janeBefore = otherVersions.stamp("jane austen");
+        otherFeed.poll();
+
+        cachedPage("george orwell", loads);
+        assertEquals(3, loads.get());
+        cachedPage("jane austen", loads);
+        assertEquals(3, loads.get());
+        assertEquals(janeBefore, otherVersions.stamp("jane austen"));
+    }
+
+    @Test
+    void shouldIndexBooksCreatedOnOtherInstance_once() {
+        RequestBook request = new RequestBook("Burmese Days", "George Orwell", "Harper", "1934-10-25 10:00:00");
+        ResponseBook created = restTemplate.postForEntity("http://localhost:" + port + "/api/v1/books", request,
+                ResponseBook.class).getBody();
+        assertNotNull(created);
+        assertEquals(List.of(), otherSearchIndex.search("burmese", 10));
+
+        otherFeed.poll();
+        otherSearchIndex.load(created.id(), created.id());
+
+        assertEquals(List.of(created.id()), ids(otherSearchIndex.search("burmese", 10)));
+    }
+
+    @Test
+    void shouldNotEvictAgain_ownChanges() {
+        authorChangeFeed.seek();
+        RequestBook request = new RequestBook("Emma", "Jane Austen", "John Murray", "1815-12-23 10:00:00");
+        restTemplate.postForEntity("http://localhost:" + port + "/api/v1/books", request, ResponseBook.class);
+        AuthorVersions.Stamp afterWrite = authorVersions.stamp("jane austen");
+
+        authorChangeFeed.poll();
+
+        assertEquals(afterWrite, authorVersions.stamp("jane austen"));
+    }
+
+    @Test
+    void shouldApplyChangeCommittedWithLowerId_afterHigherOne() {
+        AtomicInteger loads = new AtomicInteger();
+        cachedPage("harper lee", loads);
+        cachedPage("j.d. salinger", loads);
+        long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM author_change", Long.class);
+
+        insertChange(last + 2, "harper lee");
+        otherFeed.poll();
+        cachedPage("harper lee", loads);
+        assertEquals(3, loads.get());
+
+        insertChange(last + 1, "j.d. salinger");
+        otherFeed.poll();
+        cachedPage("j.d. salinger", loads);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldReadPastBatchSize() {
+        AtomicInteger loads = new AtomicInteger();
+        List<String> authors = List.of("a", "b", "c", "d", "e");
+        authors.forEach(author -> cachedPage(author, loads));
+        long last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM author_change", Long.class);
+        for (int i = 0; i < authors.size(); i++) {
+            insertChange(last + 1 + i, authors.get(i));
+        }
+
+        otherFeed.poll();
+
+        authors.forEach(author -> cachedPage(author, loads));
+        assertEquals(10, loads.get());
+    }
+
+    private void cachedPage(String authorKey, AtomicInteger loads) {
+        otherListingCache.get(authorKey, FIRST_PAGE, () -> {
+            loads.incrementAndGet();
+            return new ResponseBookPage(List.of(), null, null);
+        });
+    }
+
+    private void insertChange(long id, String authorKey) {
+        jdbcTemplate.update("INSERT INTO author_change"
+                        + " (id, author_key, first_book_id, last_book_id, origin, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, authorKey, 0, 0, "another-instance", LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<ResponseBook> books) {
+        return books.stream().map(ResponseBook::id).toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorKeyBackfillTest {
+
+    private final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:author-key-backfill;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=false", "sa", "");
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @Test
+    void shouldFillMissingKeysInChunks_andKeepExistingOnes() throws Exception {
+        jdbcTemplate.execute("CREATE TABLE book (id BIGINT PRIMARY KEY, author VARCHAR(255) NOT NULL,"
+                + " author_key VARCHAR(255))");
+        for (long id = 1; id <= 7; id++) {
+            jdbcTemplate.update("INSERT INTO book (id, author, author_key) VALUES (?, ?, NULL)", id, " Émile  Zola" + id);
+        }
+        jdbcTemplate.update("INSERT INTO book (id, author, author_key) VALUES (8, 'George Orwell', 'kept')");
+
+        new AuthorKeyBackfill(dataSource, new BulkLoadProperties(3, 10)).run(null);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book WHERE author_key IS NULL", Integer.class));
+        assertEquals(List.of("emile zola1", "emile zola7", "kept"), jdbcTemplate.queryForList(
+                "SELECT author_key FROM book WHERE id IN (1, 7, 8) ORDER BY id", String.class));
+    }
+}
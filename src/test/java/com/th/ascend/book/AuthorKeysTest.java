@@ -0,0 +1,38 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorKeysTest {
+
+    @Test
+    void shouldFoldCaseAndWhitespace() {
+        assertEquals("george orwell", AuthorKeys.normalize("George Orwell"));
+        assertEquals("george orwell", AuthorKeys.normalize("  george \t ORWELL "));
+        assertEquals("george orwell", AuthorKeys.normalize("George Orwell"));
+    }
+
+    @Test
+    void shouldDropLatinAccents_inComposedAndDecomposedForms() {
+        assertEquals("gabriel garcia marquez", AuthorKeys.normalize("Gabriel García Márquez"));
+        assertEquals("gabriel garcia marquez",
+                AuthorKeys.normalize(Normalizer.normalize("Gabriel García Márquez", Normalizer.Form.NFD)));
+    }
+
+    @Test
+    void shouldKeepThaiMarks_andUnifyThaiNormalizationForms() {
+        String composed = "ทองคำ";
+        String decomposed = "ทองค" + "ํา";
+
+        assertEquals(AuthorKeys.normalize(composed), AuthorKeys.normalize(decomposed));
+        assertNotEquals(AuthorKeys.normalize("กิ่ง"), AuthorKeys.normalize("กิง"), "Tone marks distinguish Thai names");
+    }
+
+    @Test
+    void shouldPassNullThrough() {
+        assertNull(AuthorKeys.normalize(null));
+    }
+}
@@ -0,0 +1,92 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorVersionsTest {
+
+    private final AuthorVersions authorVersions =
+            new AuthorVersions(Clock.fixed(Instant.parse("2025-01-01T10:00:00.250Z"), ZoneOffset.UTC));
+
+    @Test
+    void shouldShareFloorStamp_untilAuthorIsBumped() {
+        AuthorVersions.Stamp before = authorVersions.stamp("george orwell");
+        assertEquals(before, authorVersions.stamp("jane austen"));
+
+        authorVersions.bump("george orwell");
+
+        AuthorVersions.Stamp after = authorVersions.stamp("george orwell");
+        assertTrue(after.version() > before.version());
+        assertEquals(before, authorVersions.stamp("jane austen"));
+        assertNotEquals(authorVersions.etag(before, 1), authorVersions.etag(after, 1));
+    }
+
+    @Test
+    void shouldWithholdLastModified_untilTheSecondAfterTheChange() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00.250Z"));
+        AuthorVersions versions = new AuthorVersions(clock);
+        AuthorVersions.Stamp floor = versions.stamp("george orwell");
+        assertEquals(Instant.parse("2025-01-01T10:00:00Z").toEpochMilli(), versions.lastModified(floor));
+
+        versions.bump("george orwell");
+        AuthorVersions.Stamp first = versions.stamp("george orwell");
+        assertEquals(Instant.parse("2025-01-01T10:00:01Z"), first.lastModified());
+        assertEquals(-1, versions.lastModified(first));
+
+        clock.instant = Instant.parse("2025-01-01T10:00:01.100Z");
+        long handedOut = versions.lastModified(first);
+        assertEquals(first.lastModified().toEpochMilli(), handedOut);
+
+        // A later change within the same second must not match the date handed out above.
+        clock.instant = Instant.parse("2025-01-01T10:00:01.700Z");
+        versions.bump("george orwell");
+        AuthorVersions.Stamp second = versions.stamp("george orwell");
+        assertTrue(second.lastModified().toEpochMilli() > handedOut);
+        assertTrue(second.version() > first.version());
+        assertNotEquals(versions.etag(first, 1), versions.etag(second, 1));
+    }
+
+    @Test
+    void shouldMoveEveryAuthorForward_onBumpAll() {
+        authorVersions.bump("george orwell");
+        AuthorVersions.Stamp george = authorVersions.stamp("george orwell");
+        AuthorVersions.Stamp floor = authorVersions.stamp("jane austen");
+
+        authorVersions.bumpAll();
+
+        AuthorVersions.Stamp georgeAfter = authorVersions.stamp("george orwell");
+        assertTrue(georgeAfter.version() > george.version());
+        assertFalse(georgeAfter.lastModified().isBefore(george.lastModified()));
+        assertTrue(authorVersions.stamp("jane austen").version() > floor.version());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.th.ascend.book;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,11 +8,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +32,24 @@ class BookControllerIntegrationTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private AuthorListingCache authorListingCache;
+
+    @Autowired
+    private AuthorListingBytes authorListingBytes;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private AuthorSummaries authorSummaries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String baseUrl(String path) {
         return "http://localhost:" + port + "/api/v1/books" + path;
     }
@@ -35,6 +57,10 @@ class BookControllerIntegrationTest {
     @BeforeEach
     void clean() {
         bookRepository.deleteAll();
+        authorListingCache.invalidateAll();
+        authorListingBytes.invalidateAll();
+        bookSearchIndex.rebuild();
+        authorSummaries.rebuild();
     }
 
     @Test
@@ -103,6 +129,372 @@ class BookControllerIntegrationTest {
         assertEquals(LocalDateTime.of(2024, 5, 1, 12, 0, 0), body[1].publishedDate());
     }
 
+    @Test
+    void givenGetBooksByAuthor_matchesAuthorRegardlessOfCaseSpacingAndAccents() {
+        RequestBook request = new RequestBook("Cien años de soledad", "Gabriel García Márquez", "Sudamericana", "1967-05-30 10:00:00");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl(""), request, ResponseBook.class).getStatusCode());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseBook[] body = restTemplate.exchange(baseUrl(""), HttpMethod.GET,
+                new HttpEntity<>(new RequestBookByAuthor(" gabriel garcia  MARQUEZ"), headers), ResponseBook[].class).getBody();
+
+        assertNotNull(body);
+        assertEquals(1, body.length);
+        assertEquals("Gabriel García Márquez", body[0].author(), "The author is returned as written");
+    }
+
+    @Test
+    void givenGetBooksByAuthors_returnsNewestBooksOfEachAuthorInRequestOrder() {
+        List<BookEntity> books = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            books.add(book("Orwell " + i, "George Orwell", LocalDateTime.of(1940 + i, 1, 1, 10, 0, 0)));
+        }
+        books.add(book("Emma", "Jane Austen", LocalDateTime.of(1815, 12, 23, 10, 0, 0)));
+        bookRepository.saveAll(books);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        RequestBooksByAuthors request = new RequestBooksByAuthors(List.of("jane austen", "George Orwell", "Nobody"), 2);
+        ResponseEntity<ResponseAuthorBooks[]> response = restTemplate.exchange(baseUrl("/authors"), HttpMethod.GET,
+                new HttpEntity<>(request, headers), ResponseAuthorBooks[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ResponseAuthorBooks[] body = response.getBody();
+        assertNotNull(body);
+        assertEquals(List.of("jane austen", "George Orwell", "Nobody"),
+                Arrays.stream(body).map(ResponseAuthorBooks::author).toList());
+        assertEquals(List.of("Emma"), body[0].books().stream().map(ResponseBook::title).toList());
+        assertNull(body[0].nextCursor());
+        assertEquals(List.of("Orwell 3", "Orwell 2"), body[1].books().stream().map(ResponseBook::title).toList());
+        assertEquals(LocalDateTime.of(1943, 1, 1, 10, 0, 0), body[1].books().getFirst().publishedDate());
+        assertNotNull(body[1].nextCursor(), "A third Orwell book remains");
+        assertTrue(body[2].books().isEmpty());
+    }
+
+    @Test
+    void givenGetBooksByAuthors_withoutAuthors_returnsBadRequest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl("/authors"), HttpMethod.GET,
+                new HttpEntity<>(new RequestBooksByAuthors(List.of()), headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void givenGetBookPageByAuthor_followsCursorUntilLastPage() {
+        String author = "Author A";
+        List<BookEntity> books = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            BookEntity b = new BookEntity();
+            b.setTitle("T" + i);
+            b.setAuthor(author);
+            // Two books share each timestamp so the id tie-break is exercised.
+            b.setPublishedDate(LocalDateTime.of(2024, 5, 1 + i / 2, 12, 0, 0));
+            books.add(b);
+        }
+        bookRepository.saveAll(books);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            HttpEntity<RequestBookByAuthor> httpEntity =
+                    new HttpEntity<>(new RequestBookByAuthor(author, cursor, 2), headers);
+            ResponseEntity<ResponseBookPage> response = restTemplate.exchange(
+                    baseUrl("/page"), HttpMethod.GET, httpEntity, ResponseBookPage.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            ResponseBookPage body = response.getBody();
+            assertNotNull(body);
+            body.books().forEach(book -> titles.add(book.title()));
+            cursor = body.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("T5", "T4", "T3", "T2", "T1"), titles);
+    }
+
+    @Test
+    void givenCachedListing_whenBookCreatedForAuthor_returnsFreshListing() {
+        String author = "Author A";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RequestBookByAuthor> httpEntity = new HttpEntity<>(new RequestBookByAuthor(author), headers);
+
+        ResponseEntity<ResponseBook[]> before = restTemplate.exchange(
+                baseUrl(""), HttpMethod.GET, httpEntity, ResponseBook[].class);
+        assertNotNull(before.getBody());
+        assertEquals(0, before.getBody().length);
+
+        RequestBook request = new RequestBook("T1", author, "Pub", "2024-05-01 12:00:00");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl(""), request, ResponseBook.class).getStatusCode());
+
+        ResponseEntity<ResponseBook[]> after = restTemplate.exchange(
+                baseUrl(""), HttpMethod.GET, httpEntity, ResponseBook[].class);
+        assertNotNull(after.getBody());
+        assertEquals(1, after.getBody().length);
+        assertEquals("T1", after.getBody()[0].title());
+    }
+
+    @Test
+    void givenRepeatedWrites_lastModifiedIsNeverLaterThanDate() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            RequestBook request = new RequestBook("T" + i, "Busy Author", "Pub", "2024-05-01 12:00:00");
+            assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl(""), request, ResponseBook.class).getStatusCode());
+        }
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl("?author=Busy Author"), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        long lastModified = response.getHeaders().getLastModified();
+        assertTrue(lastModified <= response.getHeaders().getDate(),
+                "Last-Modified must not be later than Date");
+
+        // Handed out once the second after the last write has begun.
+        Thread.sleep(1_100);
+        response = restTemplate.getForEntity(baseUrl("?author=Busy Author"), String.class);
+        lastModified = response.getHeaders().getLastModified();
+        assertTrue(lastModified > 0);
+        assertTrue(lastModified <= response.getHeaders().getDate(),
+                "Last-Modified must not be later than Date");
+    }
+
+    @Test
+    void givenBulkNdjson_storesValidBooksAndReportsRejectedOnes() {
+        String ndjson = String.join("\n",
+                "{\"title\":\"B1\",\"author\":\"Bulk Author\",\"publishedDate\":\"2020-01-01 10:00:00\"}",
+                "{\"title\":\"B2\",\"author\":\"Bulk Author\",\"publishedDate\":\"0999-01-01 00:00:00\"}",
+                "{\"title\":[],\"author\":\"Bulk Author\",\"publishedDate\":\"2020-01-01 10:00:00\"}",
+                "{\"title\":\"B4\",\"author\":\"Bulk Author\",\"publishedDate\":\"2021-01-01 10:00:00\"}");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<ResponseBulkBook> response = restTemplate.postForEntity(
+                baseUrl("/bulk"), new HttpEntity<>(ndjson, headers), ResponseBulkBook.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ResponseBulkBook body = response.getBody();
+        assertNotNull(body);
+        assertEquals(2, body.created());
+        assertEquals(2, body.failed());
+        assertEquals(List.of(1L, 2L), body.failures().stream().map(ResponseBulkBook.Failure::index).toList());
+        assertEquals(List.of("B1", "B4"), bookRepository.findAll().stream().map(BookEntity::getTitle).sorted().toList());
+    }
+
+    @Test
+    void givenCreateAndBulkLoad_statsCountEveryBook_andMatchRebuild() {
+        restTemplate.postForEntity(baseUrl(""), new RequestBook("S1", "Stats Author", "Pub", "2019-03-01 10:00:00"),
+                ResponseBook.class);
+        restTemplate.postForEntity(baseUrl("/bulk"), List.of(
+                new RequestBook("S2", "stats  author", "Pub", "2021-06-01 10:00:00"),
+                new RequestBook("S3", "Stats Author", "Pub", "2021-01-01 10:00:00"),
+                new RequestBook("X1", "Someone Else", "Pub", "2020-01-01 10:00:00")), ResponseBulkBook.class);
+
+        ResponseEntity<ResponseAuthorStats> response =
+                restTemplate.getForEntity(baseUrl("/stats?author={author}"), ResponseAuthorStats.class, "STATS AUTHOR");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ResponseAuthorStats stats = response.getBody();
+        assertNotNull(stats);
+        assertEquals("Stats Author", stats.author());
+        assertEquals(3, stats.books());
+        assertEquals(LocalDateTime.of(2019, 3, 1, 10, 0, 0), stats.firstPublishedDate());
+        assertEquals(LocalDateTime.of(2021, 6, 1, 10, 0, 0), stats.latestPublishedDate());
+        assertEquals(Map.of(2019, 1L, 2021, 2L), stats.booksPerYear());
+
+        assertEquals(2, authorSummaries.rebuild());
+        ResponseAuthorStats rebuilt = restTemplate.getForObject(baseUrl("/stats?author=Stats Author"), ResponseAuthorStats.class);
+        assertEquals(stats.books(), rebuilt.books());
+        assertEquals(stats.firstPublishedDate(), rebuilt.firstPublishedDate());
+        assertEquals(stats.latestPublishedDate(), rebuilt.latestPublishedDate());
+        assertEquals(stats.booksPerYear(), rebuilt.booksPerYear());
+
+        assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity(baseUrl("/stats?author=Nobody"), String.class).getStatusCode());
+    }
+
+    @Test
+    void givenReleases_pagesThroughDateRangeNewestFirst_optionallyByAuthor() {
+        restTemplate.postForEntity(baseUrl("/bulk"), List.of(
+                new RequestBook("Before", "Range Author", "Pub", "2023-12-31 23:59:59"),
+                new RequestBook("R1", "Range Author", "Pub", "2024-01-01 00:00:00"),
+                new RequestBook("R2", "Other Author", "Pub", "2024-01-15 10:00:00"),
+                new RequestBook("R3", "Range Author", "Pub", "2024-01-31 23:59:59"),
+                new RequestBook("After", "Range Author", "Pub", "2024-02-01 00:00:00")), ResponseBulkBook.class);
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = baseUrl("/releases?from=2024-01-01&to=2024-01-31&limit=2")
+                    + (cursor != null ? "&cursor=" + cursor : "");
+            ResponseBookPage page = restTemplate.getForObject(url, ResponseBookPage.class);
+            page.books().forEach(book -> titles.add(book.title()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(List.of("R3", "R2", "R1"), titles);
+
+        ResponseBookPage byAuthor = restTemplate.getForObject(
+                baseUrl("/releases?from=2024-01-01&to=2024-01-31&author=range author"), ResponseBookPage.class);
+        assertEquals(List.of("R3", "R1"), byAuthor.books().stream().map(ResponseBook::title).toList());
+
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                baseUrl("/releases?from=2024-02-01&to=2024-01-01"), String.class).getStatusCode());
+    }
+
+    @Test
+    void givenBulkJsonArray_storesAllBooks() {
+        List<RequestBook> books = List.of(
+                new RequestBook("A1", "Array Author", "Pub", "2020-01-01 10:00:00"),
+                new RequestBook("A2", "Array Author", "Pub", "2021-01-01 10:00:00"));
+
+        ResponseEntity<ResponseBulkBook> response = restTemplate.postForEntity(baseUrl("/bulk"), books, ResponseBulkBook.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().created());
+        assertEquals(0, response.getBody().failed());
+        assertEquals(2, bookRepository.count());
+    }
+
+    @Test
+    void givenExportByAuthor_streamsNdjsonAndCsvNewestFirst() {
+        BookEntity b1 = new BookEntity();
+        b1.setTitle("T1");
+        b1.setAuthor("Export Author");
+        b1.setPublishedDate(LocalDateTime.of(2024, 5, 1, 12, 0, 0));
+        BookEntity b2 = new BookEntity();
+        b2.setTitle("T2, \"quoted\"");
+        b2.setAuthor("Export Author");
+        b2.setPublishedDate(LocalDateTime.of(2024, 5, 2, 12, 0, 0));
+        BookEntity other = new BookEntity();
+        other.setTitle("Other");
+        other.setAuthor("Another");
+        other.setPublishedDate(LocalDateTime.of(2024, 5, 3, 12, 0, 0));
+        bookRepository.saveAll(Arrays.asList(b1, b2, other));
+
+        ResponseEntity<String> ndjson = restTemplate.getForEntity(baseUrl("/export?author=Export Author"), String.class);
+        assertEquals(HttpStatus.OK, ndjson.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, ndjson.getHeaders().getContentType());
+        assertNotNull(ndjson.getBody());
+        assertTrue(ndjson.getBody().endsWith("}\n"), "Every record ends with a newline");
+        String[] lines = ndjson.getBody().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"publishedDate\":\"2024-05-02T12:00:00\""));
+        assertTrue(lines[1].contains("\"title\":\"T1\""));
+
+        ResponseEntity<String> csv = restTemplate.getForEntity(baseUrl("/export?author=Export Author&format=csv"), String.class);
+        assertEquals(HttpStatus.OK, csv.getStatusCode());
+        assertNotNull(csv.getBody());
+        String[] rows = csv.getBody().split("\r\n");
+        assertEquals(3, rows.length);
+        assertEquals("id,title,author,publishedDate", rows[0]);
+        assertTrue(rows[1].endsWith(",\"T2, \"\"quoted\"\"\",Export Author,2024-05-02T12:00:00"));
+    }
+
+    @Test
+    void givenLegacyRowWithoutPublishedDate_indexesAndExportsIt() {
+        // Tables created before published_date was required may still hold NULLs.
+        jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN published_date SET NULL");
+        try {
+            jdbcTemplate.update("INSERT INTO book (id, title, author, author_key, published_date)"
+                    + " VALUES (999999, 'Undated', 'Legacy Author', 'legacy author', NULL)");
+
+            bookSearchIndex.rebuild();
+            List<ResponseBook> found = bookSearchIndex.search("undated", 10);
+            assertEquals(1, found.size());
+            assertNull(found.getFirst().publishedDate());
+
+            String csv = restTemplate.getForObject(baseUrl("/export?author=Legacy Author&format=csv"), String.class);
+            assertTrue(csv.endsWith("999999,Undated,Legacy Author,\r\n"));
+            String ndjson = restTemplate.getForObject(baseUrl("/export?author=Legacy Author"), String.class);
+            assertTrue(ndjson.contains("\"publishedDate\":null"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM book WHERE published_date IS NULL");
+            jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN published_date SET NOT NULL");
+        }
+    }
+
+    @Test
+    void givenLegacyRowsWithoutPublishedDate_pagesThroughThemAfterDatedBooks() {
+        jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN published_date SET NULL");
+        try {
+            String author = "Legacy Author";
+            for (int i = 1; i <= 2; i++) {
+                BookEntity b = new BookEntity();
+                b.setTitle("Dated" + i);
+                b.setAuthor(author);
+                b.setPublishedDate(LocalDateTime.of(2024, 5, i, 12, 0, 0));
+                bookRepository.save(b);
+            }
+            jdbcTemplate.update("INSERT INTO book (id, title, author, author_key, published_date)"
+                    + " VALUES (999998, 'Undated1', 'Legacy Author', 'legacy author', NULL),"
+                    + " (999999, 'Undated2', 'Legacy Author', 'legacy author', NULL)");
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            List<String> titles = new ArrayList<>();
+            String cursor = null;
+            do {
+                HttpEntity<RequestBookByAuthor> httpEntity =
+                        new HttpEntity<>(new RequestBookByAuthor(author, cursor, 1), headers);
+                ResponseEntity<ResponseBookPage> response = restTemplate.exchange(
+                        baseUrl("/page"), HttpMethod.GET, httpEntity, ResponseBookPage.class);
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                response.getBody().books().forEach(book -> titles.add(book.title()));
+                cursor = response.getBody().nextCursor();
+            } while (cursor != null);
+
+            assertEquals(List.of("Dated2", "Dated1", "Undated2", "Undated1"), titles);
+            ResponseEntity<ResponseBook[]> listing =
+                    restTemplate.getForEntity(baseUrl("?author=Legacy Author"), ResponseBook[].class);
+            assertEquals(HttpStatus.OK, listing.getStatusCode());
+            assertEquals(4, listing.getBody().length);
+        } finally {
+            jdbcTemplate.update("DELETE FROM book WHERE published_date IS NULL");
+            jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN published_date SET NOT NULL");
+        }
+    }
+
+    @Test
+    void givenCreateAndList_recordsHotPathTimers() {
+        RequestBook request = new RequestBook("Timed", "Timed Author", "Pub", "2567-01-01 10:00:00");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl(""), request, ResponseBook.class).getStatusCode());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        restTemplate.exchange(baseUrl(""), HttpMethod.GET,
+                new HttpEntity<>(new RequestBookByAuthor("Timed Author"), headers), ResponseBook[].class);
+
+        assertTrue(meterRegistry.get("book.service.create").timer().count() > 0);
+        assertTrue(meterRegistry.get("book.repository.find").tag("query", "first").timer().count() > 0);
+        assertTrue(meterRegistry.get("book.json").tag("operation", "read").timer().count() > 0);
+        assertTrue(meterRegistry.get("book.json").tag("operation", "write").timer().count() > 0);
+        assertTrue(meterRegistry.get("book.date.buddhist.converted").counter().count() > 0);
+    }
+
+    @Test
+    void givenSearch_findsCreatedAndBulkLoadedBooksByTitleAndAuthorPrefix() {
+        RequestBook request = new RequestBook("The Pragmatic Programmer", "David Thomas", "Addison-Wesley", "2019-09-13 10:00:00");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl(""), request, ResponseBook.class).getStatusCode());
+        List<RequestBook> books = List.of(
+                new RequestBook("Programming Ruby", "David Thomas", "Pragmatic Bookshelf", "2004-10-01 10:00:00"),
+                new RequestBook("Programming Pearls", "Jon Bentley", "Addison-Wesley", "1999-09-27 10:00:00"));
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(baseUrl("/bulk"), books, ResponseBulkBook.class).getStatusCode());
+
+        ResponseBook[] programming = restTemplate.getForObject(baseUrl("/search?q=progr"), ResponseBook[].class);
+        ResponseBook[] thomas = restTemplate.getForObject(baseUrl("/search?q=prog tho"), ResponseBook[].class);
+
+        assertEquals(3, programming.length);
+        assertEquals(List.of("Programming Ruby", "The Pragmatic Programmer"),
+                Arrays.stream(thomas).map(ResponseBook::title).sorted().toList());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(baseUrl("/search?q= "), String.class).getStatusCode());
+    }
+
     @Test
     void givenPostCreateBook_withInvalidYear_returnsBadRequest() {
         RequestBook invalid = new RequestBook(
@@ -115,4 +507,12 @@ class BookControllerIntegrationTest {
         ResponseEntity<String> response = restTemplate.postForEntity(baseUrl(""), invalid, String.class);
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
+
+    private static BookEntity book(String title, String author, LocalDateTime publishedDate) {
+        BookEntity book = new BookEntity();
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setPublishedDate(publishedDate);
+        return book;
+    }
 }
@@ -1,23 +1,35 @@
 package com.th.ascend.book;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -26,6 +38,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookController.class)
+@Import({AuthorVersions.class, AuthorListingBytes.class})
+@EnableConfigurationProperties({HttpCacheProperties.class, AuthorListingBytesProperties.class})
 @ActiveProfiles("test")
 public class BookControllerTest {
 
@@ -37,9 +51,35 @@ public class BookControllerTest {
     @MockitoBean
     private BookService bookService;
 
+    @MockitoBean
+    private BookBulkLoader bookBulkLoader;
+
+    @MockitoBean
+    private BookExporter bookExporter;
+
+    @MockitoBean
+    private BookSearchIndex bookSearchIndex;
+
+    @MockitoBean
+    private BookWriteBehindQueue bookWriteBehindQueue;
+
+    @MockitoBean
+    private AuthorSummaries authorSummaries;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private AuthorVersions authorVersions;
+
+    @Autowired
+    private AuthorListingBytes authorListingBytes;
+
+    @AfterEach
+    void clearListingBytes() {
+        authorListingBytes.invalidateAll();
+    }
+
     @Test
     void givenBookListByAuthor_ReturnsListFromService() throws Exception {
         String author = "Robert C. Martin";
@@ -158,4 +198,152 @@ public class BookControllerTest {
 
         verifyNoInteractions(bookService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenCreateBookAsync_Returns202WithTicketLocation() throws Exception {
+        RequestBook request = new RequestBook("Refactoring", "Martin Fowler", "Addison-Wesley", "2018-11-20 10:00:00");
+        UUID ticket = UUID.fromString("3f1c9a52-6a52-4c7e-9f39-0a8d2a4e6b10");
+        when(bookWriteBehindQueue.submit(any(RequestBook.class))).thenReturn(ResponseBookTicket.queued(ticket));
+
+        mockMvc.perform(post(BASE_PATH + "/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", BASE_PATH + "/async/" + ticket))
+                .andExpect(jsonPath("$.ticket").value(ticket.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.id").doesNotExist());
+    }
+
+    @Test
+    void givenBookListByAuthor_Returns304FromVersionStamp_untilAuthorChanges() throws Exception {
+        String author = "Etag Author";
+        when(bookService.getBookListByAuthor(any(RequestBookByAuthor.class))).thenReturn(Collections.emptyList());
+        String body = objectMapper.writeValueAsString(new RequestBookByAuthor(author));
+
+        String etag = mockMvc.perform(get(BASE_PATH).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BASE_PATH).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(bookService, times(1)).getBookListByAuthor(any(RequestBookByAuthor.class));
+
+        authorVersions.bump(AuthorKeys.normalize(author));
+        mockMvc.perform(get(BASE_PATH).contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(bookService, times(2)).getBookListByAuthor(any(RequestBookByAuthor.class));
+    }
+
+    @Test
+    void givenAuthorQueryParam_ReturnsCacheableListWithNextLink() throws Exception {
+        String author = "Robert C. Martin";
+        ResponseBook book = new ResponseBook(1L, "Clean Code", author, LocalDateTime.of(2020, 1, 1, 10, 0, 0));
+        when(bookService.getBookPageByAuthor(eq(new RequestBookByAuthor(author, null, 1))))
+                .thenReturn(new ResponseBookPage(List.of(book), "next+/cursor=", null));
+
+        mockMvc.perform(get(BASE_PATH).param("author", author).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public, stale-while-revalidate=30"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "</api/v1/books?author=Robert%20C.%20Martin&limit=1&cursor=next%2B%2Fcursor%3D>; rel=\"next\""))
+                .andExpect(jsonPath("$", Matchers.hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Clean Code"));
+    }
+
+    @Test
+    void givenAuthorQueryParam_Returns304WithCacheControl_whenEtagMatches() throws Exception {
+        when(bookService.getBookPageByAuthor(any(RequestBookByAuthor.class)))
+                .thenReturn(new ResponseBookPage(List.of(), null, null));
+        String etag = mockMvc.perform(get(BASE_PATH).param("author", "Query Author"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BASE_PATH).param("author", "query author").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+        verify(bookService, times(1)).getBookPageByAuthor(any(RequestBookByAuthor.class));
+    }
+
+    @Test
+    void givenAuthorQueryParam_ServesStoredBytes_gzippedWhenAccepted_untilAuthorChanges() throws Exception {
+        String author = "Bytes Author";
+        List<ResponseBook> books = IntStream.range(0, 20)
+                .mapToObj(i -> new ResponseBook((long) i, "A fairly long title number " + i, author,
+                        LocalDateTime.of(2020, 1, 1, 10, 0, 0).minusDays(i)))
+                .toList();
+        when(bookService.getBookPageByAuthor(any(RequestBookByAuthor.class)))
+                .thenReturn(new ResponseBookPage(books, null, null));
+
+        byte[] json = mockMvc.perform(get(BASE_PATH).param("author", author))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, "Accept, Accept-Encoding"))
+                .andExpect(jsonPath("$", Matchers.hasSize(20)))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzipped = mockMvc.perform(get(BASE_PATH).param("author", author)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        mockMvc.perform(get(BASE_PATH).param("author", author).header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        verify(bookService, times(1)).getBookPageByAuthor(any(RequestBookByAuthor.class));
+
+        authorVersions.bump(AuthorKeys.normalize(author));
+        mockMvc.perform(get(BASE_PATH).param("author", author)).andExpect(status().isOk());
+        verify(bookService, times(2)).getBookPageByAuthor(any(RequestBookByAuthor.class));
+    }
+
+    @Test
+    void givenAuthorQueryParam_ReturnsColumnsAsCbor_whenAccepted() throws Exception {
+        ResponseBook first = new ResponseBook(1L, "Clean Code", "Robert C. Martin", LocalDateTime.of(2020, 1, 1, 10, 0, 0));
+        ResponseBook second = new ResponseBook(2L, "Clean Coder", "robert c. martin", LocalDateTime.of(2019, 1, 1, 10, 0, 0));
+        when(bookService.getBookPageByAuthor(any(RequestBookByAuthor.class)))
+                .thenReturn(new ResponseBookPage(List.of(first, second), "next", null));
+
+        mockMvc.perform(get(BASE_PATH).param("author", "Robert C. Martin").param("shape", "columns"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.LINK, Matchers.containsString("&shape=columns>")))
+                .andExpect(jsonPath("$.authors", Matchers.contains("Robert C. Martin", "robert c. martin")))
+                .andExpect(jsonPath("$.authorIndexes", Matchers.contains(0, 1)))
+                .andExpect(jsonPath("$.ids", Matchers.contains(1, 2)))
+                .andExpect(jsonPath("$.publishedDates[0]").value(1577872800))
+                .andExpect(jsonPath("$.undatedIndexes").doesNotExist());
+
+        byte[] cbor = mockMvc.perform(get(BASE_PATH).param("author", "Robert C. Martin").param("shape", "columns")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode columns = new CBORMapper().readTree(cbor);
+        assertEquals("Clean Coder", columns.get("titles").get(1).asText());
+        assertEquals("next", columns.get("nextCursor").asText());
+
+        mockMvc.perform(get(BASE_PATH).param("author", "Robert C. Martin").param("shape", "diagonal"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void givenAuthorQueryParam_ReturnsColumns_withLegacyRowsWithoutPublishedDate() throws Exception {
+        ResponseBook dated = new ResponseBook(1L, "Clean Code", "Robert C. Martin", LocalDateTime.of(2020, 1, 1, 10, 0, 0));
+        ResponseBook undated = new ResponseBook(2L, "Legacy", "Robert C. Martin", null);
+        when(bookService.getBookPageByAuthor(any(RequestBookByAuthor.class)))
+                .thenReturn(new ResponseBookPage(List.of(dated, undated), null, null));
+
+        mockMvc.perform(get(BASE_PATH).param("author", "Robert C. Martin").param("shape", "columns"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.publishedDates", Matchers.contains(1577872800, 0)))
+                .andExpect(jsonPath("$.undatedIndexes", Matchers.contains(1)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.th.ascend.book;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BookSearchIndexTest {
+
+    private static final LocalDateTime PUBLISHED = LocalDateTime.of(2020, 1, 1, 10, 0, 0);
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(mock(DataSource.class), new ExportProperties(1000),
+                new BookMetrics(new SimpleMeterRegistry()));
+        index.add(new ResponseBook(1, "Clean Code", "Robert C. Martin", PUBLISHED));
+        index.add(new ResponseBook(2, "The Clean Coder", "Robert C. Martin", PUBLISHED));
+        index.add(new ResponseBook(3, "Code Complete", "Steve McConnell", PUBLISHED));
+        index.add(new ResponseBook(4, "Martin Eden", "Jack London", PUBLISHED));
+        index.add(new ResponseBook(5, "ความสุขของกะทิ", "งามพรรณ เวชชาชีวะ", PUBLISHED));
+    }
+
+    @Test
+    void shouldMatchEveryTokenAsPrefix_inTitleOrAuthor() {
+        assertEquals(List.of(2L, 1L), ids(index.search("clean rob", 10)));
+        assertEquals(List.of(), ids(index.search("clean london", 10)));
+    }
+
+    @Test
+    void shouldRankTitleAndExactMatchesFirst() {
+        // "Martin" is a title word of Martin Eden but only an author word of the Robert C. Martin books.
+        assertEquals(List.of(4L, 2L, 1L), ids(index.search("martin", 10)));
+        // The exact word "code" outranks the prefix match "coder"; ties go to the most recently added.
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("code", 10)));
+    }
+
+    @Test
+    void shouldIgnoreBookAlreadyIndexed() {
+        index.add(new ResponseBook(4, "Martin Eden", "Jack London", PUBLISHED));
+
+        assertEquals(List.of(4L), ids(index.search("eden", 10)));
+    }
+
+    @Test
+    void shouldLimitResults() {
+        assertEquals(List.of(3L), ids(index.search("co", 1)));
+    }
+
+    @Test
+    void shouldKeepThaiCombiningMarksInsideWords() {
+        assertEquals(List.of("ความสุขของกะทิ"), BookSearchIndex.tokens("ความสุขของกะทิ"));
+        assertEquals(List.of(5L), ids(index.search("ความสุข", 10)));
+        assertEquals(List.of(5L), ids(index.search("งาม", 10)));
+    }
+
+    @Test
+    void shouldCountTermsAsTheyAreAdded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+        assertEquals(16, registry.get("book.search.terms").gauge().value());
+
+        index.add(new ResponseBook(6, "Clean Architecture", "Robert C. Martin", PUBLISHED));
+
+        assertEquals(17, registry.get("book.search.terms").gauge().value());
+    }
+
+    @Test
+    void shouldReportOutOfService_untilBuiltFromTheTable() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:search-index;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=false", "sa", "");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE book (id BIGINT PRIMARY KEY, title VARCHAR(255),"
+                + " author VARCHAR(255), published_date TIMESTAMP)");
+        new JdbcTemplate(dataSource).update("INSERT INTO book VALUES (7, 'Dune', 'Frank Herbert', NULL)");
+        BookSearchIndex fresh = new BookSearchIndex(dataSource, new ExportProperties(1000),
+                new BookMetrics(new SimpleMeterRegistry()));
+        assertFalse(fresh.isReady());
+        assertEquals(Status.OUT_OF_SERVICE, fresh.health().getStatus());
+
+        fresh.rebuild();
+
+        assertTrue(fresh.isReady());
+        assertEquals(Status.UP, fresh.health().getStatus());
+        assertEquals(List.of(7L), ids(fresh.search("dune", 10)));
+    }
+
+    private static List<Long> ids(List<ResponseBook> books) {
+        return books.stream().map(ResponseBook::id).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package com.th.ascend.book;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,20 +9,28 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataAccessResourceFailureException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,11 +42,36 @@ public class BookServiceTest {
     @Mock
     private BookMapper bookMapper;
 
+    @Mock
+    private AuthorBookCounter authorBookCounter;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private AuthorListingBytes authorListingBytes;
+
+    @Mock
+    private AuthorSummaries authorSummaries;
+
+    @Mock
+    private AuthorChangeFeed authorChangeFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private BookService bookService;
 
     @BeforeEach
     void setUp() {
-        bookService = new BookService(bookRepository, bookMapper);
+        AuthorListingCache authorListingCache =
+                new AuthorListingCache(new AuthorListingCacheProperties(100, 16, Duration.ofMinutes(10)));
+        RecentAuthorChanges recentAuthorChanges = new RecentAuthorChanges(Duration.ofSeconds(5));
+        bookService = new BookService(bookRepository, bookMapper, authorBookCounter, authorListingCache,
+                new BookMetrics(new SimpleMeterRegistry()), bookSearchIndex,
+                new AuthorChanges(authorBookCounter, authorListingCache, authorListingBytes, new AuthorVersions(),
+                        recentAuthorChanges),
+                authorSummaries, authorChangeFeed, recentAuthorChanges, new TransactionTemplate(transactionManager));
     }
 
     @Test
@@ -48,27 +82,13 @@ public class BookServiceTest {
         Sort sort = Sort.by("publishedDate").descending();
 
         LocalDateTime base = LocalDateTime.now();
-        List<BookEntity> tenDescending = new ArrayList<>();
+        List<ResponseBook> tenDescending = new ArrayList<>();
         for (int i = 0; i < defaultSize; i++) {
-            BookEntity be = new BookEntity();
-            be.setId(i + 1);
-            be.setTitle("Title " + (i + 1));
-            be.setAuthor(author);
-            be.setPublishedDate(base.minusMinutes(i));
-            tenDescending.add(be);
+            tenDescending.add(new ResponseBook(i + 1, "Title " + (i + 1), author, base.minusMinutes(i)));
         }
 
-        Page<BookEntity> page = new PageImpl<>(tenDescending, PageRequest.of(defaultPage, defaultSize, sort), 12);
-        when(bookRepository.findByAuthor(anyString(), any(Pageable.class))).thenReturn(page);
-
-        when(bookMapper.toResponseList(any(Page.class))).thenAnswer(invocation -> {
-            Page<BookEntity> input = invocation.getArgument(0);
-            List<ResponseBook> responses = new ArrayList<>();
-            for (BookEntity be : input.getContent()) {
-                responses.add(new ResponseBook(be.getId(), be.getTitle(), be.getAuthor(), be.getPublishedDate()));
-            }
-            return responses;
-        });
+        Slice<ResponseBook> slice = new SliceImpl<>(tenDescending, PageRequest.of(defaultPage, defaultSize, sort), true);
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class))).thenReturn(slice);
 
         List<ResponseBook> result = bookService.getBookListByAuthor(new RequestBookByAuthor(author));
 
@@ -84,18 +104,17 @@ public class BookServiceTest {
     @Test
     void shouldUseDefaultPageableAndAuthorFilter_whenGettingBooksByAuthor() {
         String author = "Bob";
-        when(bookRepository.findByAuthor(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 10, Sort.by("publishedDate").descending()), 0));
-        when(bookMapper.toResponseList(any(Page.class))).thenReturn(Collections.emptyList());
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10, Sort.by("publishedDate").descending()), false));
 
         bookService.getBookListByAuthor(new RequestBookByAuthor(author));
 
         ArgumentCaptor<String> authorCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
 
-        verify(bookRepository, times(1)).findByAuthor(authorCaptor.capture(), pageableCaptor.capture());
+        verify(bookRepository, times(1)).findByAuthorKey(authorCaptor.capture(), pageableCaptor.capture());
 
-        assertEquals(author, authorCaptor.getValue());
+        assertEquals("bob", authorCaptor.getValue(), "Lookups should use the normalized author key");
 
         Pageable pageable = pageableCaptor.getValue();
         assertEquals(0, pageable.getPageNumber());
@@ -118,6 +137,7 @@ public class BookServiceTest {
         saved.setId(1L);
         saved.setTitle("Clean Architecture");
         saved.setAuthor("Robert C. Martin");
+        saved.setAuthorKey("robert c. martin");
         saved.setPublishedDate(LocalDateTime.of(2020, 1, 1, 10, 0, 0));
 
         ResponseBook expectedResponse = new ResponseBook(saved.getId(), saved.getTitle(), saved.getAuthor(), saved.getPublishedDate());
@@ -134,15 +154,15 @@ public class BookServiceTest {
         verify(bookMapper, times(1)).toEntity(request);
         verify(bookRepository, times(1)).save(toSave);
         verify(bookMapper, times(1)).toResponse(saved);
+        verify(authorBookCounter, times(1)).increment("robert c. martin");
         verifyNoMoreInteractions(bookMapper, bookRepository);
     }
 
     @Test
     void shouldReturnEmptyList_whenNoBooksFoundForAuthor() {
         String author = "Unknown";
-        when(bookRepository.findByAuthor(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(Collections.emptyList(), PageRequest.of(0, 10, Sort.by("publishedDate").descending()), 0));
-        when(bookMapper.toResponseList(any(Page.class))).thenReturn(Collections.emptyList());
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10, Sort.by("publishedDate").descending()), false));
 
         List<ResponseBook> result = bookService.getBookListByAuthor(new RequestBookByAuthor(author));
 
@@ -150,6 +170,72 @@ public class BookServiceTest {
         assertTrue(result.isEmpty(), "Result list should be empty when repository returns no books");
     }
 
+    @Test
+    void shouldSeekPastCursorAndReturnNextCursor_whenMoreBooksRemain() {
+        String author = "Author A";
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0, 0);
+        List<ResponseBook> threeDescending = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            threeDescending.add(new ResponseBook(30 - i, "Title " + i, author, base.minusDays(i)));
+        }
+        BookCursor cursor = new BookCursor(base.plusDays(1), 31);
+        when(bookRepository.findByAuthorKeyBefore(eq("author a"), eq(cursor.publishedDate()), eq(cursor.id()), any(Limit.class)))
+                .thenReturn(threeDescending);
+
+        ResponseBookPage page = bookService.getBookPageByAuthor(new RequestBookByAuthor(author, cursor.encode(), 2));
+
+        assertEquals(2, page.books().size());
+        assertEquals(30, page.books().get(0).id());
+        assertEquals(29, page.books().get(1).id());
+        assertEquals(new BookCursor(base.minusDays(1), 29), BookCursor.decode(page.nextCursor()));
+
+        ArgumentCaptor<Limit> limitCaptor = ArgumentCaptor.forClass(Limit.class);
+        verify(bookRepository).findByAuthorKeyBefore(eq("author a"), eq(cursor.publishedDate()), eq(cursor.id()), limitCaptor.capture());
+        assertEquals(3, limitCaptor.getValue().max(), "One extra row should be fetched to detect the next page");
+        verify(bookRepository, never()).findByAuthorKey(anyString(), any(Pageable.class));
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    void shouldServeFirstPageFromSliceAndTotalFromCounter_whenIncludeTotalRequested() {
+        String author = "Author A";
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 5), false));
+        when(authorBookCounter.count("author a")).thenReturn(42L);
+
+        ResponseBookPage page = bookService.getBookPageByAuthor(new RequestBookByAuthor(author, null, 5, true));
+
+        assertEquals(42L, page.total());
+        assertNull(page.nextCursor());
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookRepository).findByAuthorKey(eq("author a"), pageableCaptor.capture());
+        assertEquals(5, pageableCaptor.getValue().getPageSize());
+        verify(bookRepository, never()).countByAuthorKey(anyString());
+    }
+
+    @Test
+    void shouldServeRepeatedListingFromCacheUntilAuthorGetsNewBook() {
+        String author = "Author A";
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10), false));
+
+        bookService.getBookListByAuthor(new RequestBookByAuthor(author));
+        bookService.getBookPageByAuthor(new RequestBookByAuthor(author));
+        verify(bookRepository, times(1)).findByAuthorKey(anyString(), any(Pageable.class));
+
+        RequestBook request = new RequestBook("Title", author, "Publisher", "2024-05-01 12:00:00");
+        BookEntity saved = new BookEntity();
+        saved.setId(1L);
+        saved.setAuthor(author);
+        saved.setAuthorKey(AuthorKeys.normalize(author));
+        when(bookMapper.toEntity(request)).thenReturn(new BookEntity());
+        when(bookRepository.save(any(BookEntity.class))).thenReturn(saved);
+        bookService.createBook(request);
+
+        bookService.getBookListByAuthor(new RequestBookByAuthor(author));
+        verify(bookRepository, times(2)).findByAuthorKey(anyString(), any(Pageable.class));
+    }
+
     @Test
     void shouldThrowNullPointerException_whenRequestBookByAuthorIsNull() {
         assertThrows(NullPointerException.class, () -> bookService.getBookListByAuthor(null));
@@ -175,5 +261,40 @@ public class BookServiceTest {
         verify(bookMapper, times(1)).toEntity(request);
         verify(bookRepository, times(1)).save(toSave);
         verify(bookMapper, never()).toResponse(any());
+        verifyNoInteractions(authorBookCounter);
+    }
+
+    @Test
+    void shouldShareOneCachedListing_whenAuthorDiffersOnlyInCaseSpacingOrAccents() {
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10), false));
+
+        bookService.getBookListByAuthor(new RequestBookByAuthor("George Orwell"));
+        bookService.getBookListByAuthor(new RequestBookByAuthor(" george  ORWELL "));
+        bookService.getBookListByAuthor(new RequestBookByAuthor("Géorge Orwell"));
+
+        verify(bookRepository, times(1)).findByAuthorKey(eq("george orwell"), any(Pageable.class));
+    }
+
+    @Test
+    void shouldLoadOnlyUncachedAuthorsInOneQuery_whenGettingBooksByAuthors() {
+        when(bookRepository.findByAuthorKey(anyString(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(Collections.emptyList(), PageRequest.of(0, 10), false));
+        bookService.getBookListByAuthor(new RequestBookByAuthor("Cached Author"));
+        AuthorBookRow row = mock(AuthorBookRow.class);
+        when(row.getAuthorKey()).thenReturn("other author");
+        when(row.getId()).thenReturn(7L);
+        when(row.getTitle()).thenReturn("Title");
+        when(row.getAuthor()).thenReturn("Other Author");
+        when(row.getPublishedDate()).thenReturn(LocalDateTime.of(2024, 5, 1, 12, 0, 0));
+        when(bookRepository.findNewestByAuthorKeys(anyCollection(), anyInt())).thenReturn(List.of(row));
+
+        List<ResponseAuthorBooks> result = bookService.getBooksByAuthors(
+                new RequestBooksByAuthors(List.of("Other Author", "cached author")));
+
+        verify(bookRepository).findNewestByAuthorKeys(eq(Set.of("other author")), eq(11));
+        assertEquals(List.of("Other Author", "cached author"), result.stream().map(ResponseAuthorBooks::author).toList());
+        assertEquals(7L, result.getFirst().books().getFirst().id());
+        assertTrue(result.get(1).books().isEmpty());
     }
 }
@@ -0,0 +1,177 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookWriteBehindQueueTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Spy
+    private BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+
+    @Mock
+    private AuthorBookCounter authorBookCounter;
+
+    @Mock
+    private AuthorListingCache authorListingCache;
+
+    @Mock
+    private AuthorListingBytes authorListingBytes;
+
+    @Mock
+    private AuthorSummaries authorSummaries;
+
+    @Mock
+    private AuthorChangeFeed authorChangeFeed;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    private BookWriteBehindQueue queue;
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        queue = new BookWriteBehindQueue(bookRepository, bookMapper,
+                new AuthorChanges(authorBookCounter, authorListingCache, authorListingBytes, new AuthorVersions(),
+                        new RecentAuthorChanges(Duration.ofSeconds(5))),
+                authorSummaries, authorChangeFeed, new TransactionTemplate(transactionManager),
+                bookSearchIndex, new WriteBehindProperties(true, 2, 10, Duration.ofMillis(20), Duration.ofSeconds(5), Duration.ofMinutes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void shouldStoreQueuedBooksInOneBatch_andDrainOnStop() {
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        queue.start();
+        ResponseBookTicket first = queue.submit(book("Domain-Driven Design"));
+        ResponseBookTicket second = queue.submit(book("Implementing Domain-Driven Design"));
+
+        queue.stop();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository, atLeastOnce()).saveAll(batch.capture());
+        assertEquals(2, batch.getAllValues().stream().mapToInt(List::size).sum());
+        assertEquals(ResponseBookTicket.Status.CREATED, queue.ticket(first.ticket()).status());
+        assertNotNull(queue.ticket(second.ticket()).id());
+        verify(authorListingCache, atLeastOnce()).invalidate("eric evans");
+    }
+
+    @Test
+    void shouldRejectWith429_whenQueueIsFull() {
+        queue.start();
+        // Park the writer inside the first batch so the queue can fill behind it.
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return assignIds(invocation.getArgument(0));
+        });
+        queue.submit(book("A"));
+        await(() -> verify(bookRepository).saveAll(anyList()));
+        queue.submit(book("B"));
+        queue.submit(book("C"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> queue.submit(book("D")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+    }
+
+    @Test
+    void shouldFailOnlyTheBadBook_whenBatchInsertFails() {
+        when(bookRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("batch"));
+        when(bookRepository.save(any(BookEntity.class))).thenAnswer(invocation -> {
+            BookEntity entity = invocation.getArgument(0);
+            if (entity.getTitle().equals("Bad")) {
+                throw new DataIntegrityViolationException("Data too long for column 'title'");
+            }
+            entity.setId(ids.incrementAndGet());
+            return entity;
+        });
+        queue.start();
+        ResponseBookTicket good = queue.submit(book("Good"));
+        ResponseBookTicket bad = queue.submit(book("Bad"));
+
+        queue.stop();
+
+        assertEquals(ResponseBookTicket.Status.CREATED, queue.ticket(good.ticket()).status());
+        assertEquals(ResponseBookTicket.Status.FAILED, queue.ticket(bad.ticket()).status());
+        assertTrue(queue.ticket(bad.ticket()).message().contains("Data too long"));
+    }
+
+    @Test
+    void shouldNotStoreCommittedBatchAgain_whenCompletingFails() {
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        doThrow(new IllegalStateException("index")).when(bookSearchIndex).add(any(ResponseBook.class));
+        queue.start();
+        queue.submit(book("Domain-Driven Design"));
+
+        queue.stop();
+
+        verify(bookRepository, times(1)).saveAll(anyList());
+        verify(bookRepository, never()).save(any(BookEntity.class));
+        verify(authorListingCache).invalidate("eric evans");
+    }
+
+    @Test
+    void shouldReturn503_whenNotRunning() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> queue.submit(book("A")));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+    }
+
+    private List<BookEntity> assignIds(List<BookEntity> entities) {
+        entities.forEach(entity -> entity.setId(ids.incrementAndGet()));
+        return entities;
+    }
+
+    private static RequestBook book(String title) {
+        return new RequestBook(title, "Eric Evans", "Addison-Wesley", "2003-08-20 10:00:00");
+    }
+
+    private static void await(Runnable assertion) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
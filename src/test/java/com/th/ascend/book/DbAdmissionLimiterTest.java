@@ -0,0 +1,110 @@
+package com.th.ascend.book;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DbAdmissionLimiterTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection targetConnection;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DbAdmissionLimiter limiter;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        limiter = new DbAdmissionLimiter(new DbAdmissionProperties(true, 1, Duration.ofMillis(50)));
+        meterRegistry = new SimpleMeterRegistry();
+        limiter.bindTo(meterRegistry);
+        dataSource = (DataSource) limiter.postProcessAfterInitialization(targetDataSource, "dataSource");
+        lenient().when(targetDataSource.getConnection()).thenReturn(targetConnection);
+    }
+
+    @Test
+    void shouldRejectCallerOnceAllPermitsAreHeldPastMaxWait() throws SQLException {
+        Connection held = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1.0, meterRegistry.get("book.db.admission.rejected").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("book.db.admission.active").gauge().value());
+
+        held.close();
+        verify(targetConnection).close();
+        assertEquals(0.0, meterRegistry.get("book.db.admission.active").gauge().value());
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnce_whenConnectionClosedTwice() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void shouldCompareConnectionByProxyIdentity() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertEquals(connection, connection);
+        assertEquals(System.identityHashCode(connection), connection.hashCode());
+        assertNotEquals(connection, targetConnection);
+    }
+
+    @Test
+    void shouldReleasePermit_whenTargetDataSourceFails() throws SQLException {
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(targetConnection);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection(), "The permit of the failed attempt should have been returned");
+    }
+
+    @Test
+    void shouldAdmitEachPoolBehindRoutingDataSourceSeparately() throws SQLException {
+        HikariDataSource primary = mock(HikariDataSource.class);
+        HikariDataSource replica = mock(HikariDataSource.class);
+        when(primary.getConnection()).thenReturn(targetConnection);
+        when(replica.getConnection()).thenReturn(targetConnection);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                ReplicaDataSourceProperties.Balancing.ROUND_ROBIN);
+        limiter.postProcessAfterInitialization(routing, "readWriteRoutingDataSource");
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        assertSame(lazy, limiter.postProcessAfterInitialization(lazy, "dataSource"));
+
+        routing.getConnection();
+        assertThrows(SQLTransientConnectionException.class, routing::getConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertNotNull(routing.getConnection(), "The replica should not queue behind the primary");
+            assertThrows(SQLTransientConnectionException.class, routing::getConnection);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertEquals(2.0, meterRegistry.get("book.db.admission.active").gauge().value());
+    }
+}
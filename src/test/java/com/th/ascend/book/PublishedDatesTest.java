@@ -0,0 +1,55 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishedDatesTest {
+
+    private static final int CURRENT_YEAR = 2025;
+
+    @Test
+    void shouldParseCommonEraDate() {
+        assertEquals(LocalDateTime.of(2020, 1, 15, 10, 30, 5),
+                PublishedDates.parse("2020-01-15 10:30:05", CURRENT_YEAR));
+    }
+
+    @Test
+    void shouldNormaliseBuddhistEraDate() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 8, 0, 0),
+                PublishedDates.parse("2567-02-29 08:00:00", CURRENT_YEAR),
+                "Leap day must be checked against the CE year");
+        assertEquals(LocalDateTime.of(CURRENT_YEAR, 12, 31, 23, 59, 59),
+                PublishedDates.parse((CURRENT_YEAR + 543) + "-12-31 23:59:59", CURRENT_YEAR));
+    }
+
+    @Test
+    void shouldRejectYearsOutsideAcceptedRange() {
+        assertNull(PublishedDates.parse("0999-01-01 00:00:00", CURRENT_YEAR));
+        assertNull(PublishedDates.parse((CURRENT_YEAR + 544) + "-01-01 00:00:00", CURRENT_YEAR));
+    }
+
+    @Test
+    void shouldRejectMalformedInputWithoutThrowing() {
+        assertNull(PublishedDates.parse("2020-01-15T10:30:05", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-1-15 10:30:05", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-01-15 10:30", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2O20-01-15 10:30:05", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2021-02-29 10:30:05", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-13-01 10:30:05", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-01-01 24:00:00", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-01-01 aa:00:00", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-01-01 10:0x:00", CURRENT_YEAR));
+        assertNull(PublishedDates.parse("2020-01-01 10:00:-1", CURRENT_YEAR));
+        assertNull(PublishedDates.parse(null));
+    }
+
+    @Test
+    void shouldReuseLastParseForSameString() {
+        String text = "2019-03-20 14:45:00";
+        LocalDateTime first = PublishedDates.parse(text);
+        assertSame(first, PublishedDates.parse(text));
+    }
+}
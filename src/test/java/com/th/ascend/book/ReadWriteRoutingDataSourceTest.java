@@ -0,0 +1,71 @@
+package com.th.ascend.book;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String WHICH = "SELECT name FROM marker";
+
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadWriteRoutingDataSource(h2("primary"), List.of(h2("replica")),
+                ReplicaDataSourceProperties.Balancing.ROUND_ROBIN);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+        routingDataSource.close();
+    }
+
+    @Test
+    void shouldReadFromReplica_whenTransactionIsReadOnly() {
+        assertEquals("replica", readOnly.execute(status -> jdbcTemplate.queryForObject(WHICH, String.class)));
+    }
+
+    @Test
+    void shouldUsePrimary_whenTransactionWrites() {
+        assertEquals("primary", readWrite.execute(status -> jdbcTemplate.queryForObject(WHICH, String.class)));
+        assertEquals("primary", jdbcTemplate.queryForObject(WHICH, String.class));
+    }
+
+    @Test
+    void shouldReadFromPrimary_whenPinnedAfterWrite() {
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        assertEquals("primary", readOnly.execute(status -> jdbcTemplate.queryForObject(WHICH, String.class)));
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        new JdbcTemplate(pool).execute("CREATE TABLE marker (name VARCHAR(16)); INSERT INTO marker VALUES ('" + name + "')");
+        return pool;
+    }
+}
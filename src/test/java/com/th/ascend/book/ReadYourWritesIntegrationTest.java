@@ -0,0 +1,91 @@
+package com.th.ascend.book;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A replica that never catches up: its {@code book} table stays empty, so any listing read from it is stale.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:ryw-primary;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=false",
+        "book.datasource.replicas[0].url=" + ReadYourWritesIntegrationTest.REPLICA_URL,
+        "book.datasource.replicas[0].username=sa",
+        "book.datasource.replicas[0].password="})
+@ActiveProfiles("test")
+class ReadYourWritesIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:ryw-replica;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_UPPER=false";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).execute("""
+                CREATE TABLE IF NOT EXISTS book
+                (
+                    id             BIGINT       NOT NULL,
+                    title          VARCHAR(255) NOT NULL,
+                    author         VARCHAR(255) NOT NULL,
+                    author_key     VARCHAR(255) NOT NULL,
+                    published_date TIMESTAMP,
+                    PRIMARY KEY (id)
+                )
+                """);
+    }
+
+    @Test
+    void givenWrite_listingCachedAfterReadWithoutCookie_includesTheWrite() {
+        RequestBook request = new RequestBook("Fresh", "Lagging Author", "Pub", "2024-05-01 12:00:00");
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity(url(""), request, ResponseBook.class).getStatusCode());
+
+        // Another client, without the read-your-writes cookie, fills the caches.
+        assertEquals(1, listing(null).length);
+        // The writer's cookie does not reach the database on a cache hit.
+        assertEquals(1, listing(ReadYourWritesFilter.COOKIE_NAME + "=1").length);
+    }
+
+    @Test
+    void givenNoRecentWrite_listingReadsReplica() {
+        jdbcTemplate.update("INSERT INTO book (id, title, author, author_key, published_date) VALUES (?, ?, ?, ?, ?)",
+                987654, "Unseen", "Quiet Author", "quiet author", LocalDateTime.of(2024, 5, 1, 12, 0));
+
+        ResponseBook[] books = restTemplate.getForObject(url("?author=Quiet Author"), ResponseBook[].class);
+
+        assertEquals(0, books.length, "Read from the replica, which does not have the book");
+    }
+
+    private ResponseBook[] listing(String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cookie != null) {
+            headers.add(HttpHeaders.COOKIE, cookie);
+        }
+        return restTemplate.exchange(url("?author=Lagging Author"), HttpMethod.GET, new HttpEntity<>(headers),
+                ResponseBook[].class).getBody();
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + "/api/v1/books" + path;
+    }
+}